@@ -1,18 +1,33 @@
 package ru.practicum.shareit.booking.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStateCountDto;
 import ru.practicum.shareit.booking.dto.create.CreateBookingDto;
+import ru.practicum.shareit.booking.dto.create.CreateBookingResultDto;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.utils.PageCursor;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.Collection;
+import java.util.List;
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -20,7 +35,10 @@ import java.util.Collection;
 @Slf4j
 @Validated
 public class BookingController {
+    private static final int MAX_BATCH_SIZE = 500;
+
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/{bookingId}")
     public BookingDto getBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
@@ -30,21 +48,59 @@ public class BookingController {
     }
 
     @GetMapping
-    public Collection<BookingDto> getBookingsByState(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                     @RequestParam(required = false) String state,
-                                                     @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                                     @RequestParam(defaultValue = "10") @Positive Integer size) {
-        log.info("Получение списка бронирований пользователя userId={}, по состоянию = {}", userId, state);
-        return bookingService.getBookingsForUser(userId, BookingState.parseState(state), from, size);
+    public ResponseEntity<Collection<BookingDto>> getBookingsByState(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                     @RequestParam(required = false) String state,
+                                                                     @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                                                     @RequestParam(defaultValue = "10") @Positive Integer size,
+                                                                     @RequestParam(required = false) String cursor) {
+        log.info("Получение списка бронирований пользователя userId={}, по состоянию = {}, cursor={}", userId, state, cursor);
+        BookingState bookingState = BookingState.parseState(state);
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.getBookingsForUser(userId, bookingState, from, size));
+        }
+        return withNextCursor(bookingService.getBookingsForUser(userId, bookingState, parseCursor(cursor), size), size);
     }
 
     @GetMapping("/owner")
-    public Collection<BookingDto> getBookingsByStateOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                          @RequestParam(required = false) String state,
-                                                          @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                                          @RequestParam(defaultValue = "10") @Positive Integer size) {
-        log.info("Получение списка бронирований владельцем userId={}, по состоянию = {}", userId, state);
-        return bookingService.getBookingsForItemOwner(userId, BookingState.parseState(state), from, size);
+    public ResponseEntity<Collection<BookingDto>> getBookingsByStateOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                          @RequestParam(required = false) String state,
+                                                                          @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                                                          @RequestParam(defaultValue = "10") @Positive Integer size,
+                                                                          @RequestParam(required = false) String cursor) {
+        log.info("Получение списка бронирований владельцем userId={}, по состоянию = {}, cursor={}", userId, state, cursor);
+        BookingState bookingState = BookingState.parseState(state);
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.getBookingsForItemOwner(userId, bookingState, from, size));
+        }
+        return withNextCursor(bookingService.getBookingsForItemOwner(userId, bookingState, parseCursor(cursor), size), size);
+    }
+
+    /**
+     * The owner's whole booking history as NDJSON, one booking per line, written while it is read from the
+     * database. The first line is flushed right away, the rest as the response buffer fills. The content type
+     * is set with the first line, so that an error before it is still answered with JSON.
+     */
+    @GetMapping("/owner/export")
+    public void exportBookingsOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                    HttpServletResponse response) throws IOException {
+        log.info("Выгрузка истории бронирований владельцем userId={}", userId);
+        bookingService.exportBookingsForItemOwner(userId, booking -> writeLine(response, booking));
+        if (!response.isCommitted()) {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        }
+        response.flushBuffer();
+    }
+
+    @GetMapping("/counts")
+    public BookingStateCountDto countBookingsByState(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Получение количества бронирований пользователя по состояниям userId={}", userId);
+        return bookingService.countBookingsForUser(userId);
+    }
+
+    @GetMapping("/owner/counts")
+    public BookingStateCountDto countBookingsByStateOwner(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Получение количества бронирований владельца по состояниям userId={}", userId);
+        return bookingService.countBookingsForItemOwner(userId);
     }
 
     @PostMapping
@@ -54,6 +110,16 @@ public class BookingController {
         return bookingService.createBooking(userId, createBookingDto);
     }
 
+    @PostMapping("/batch")
+    public List<CreateBookingResultDto> createBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                       @RequestBody
+                                                       @NotEmpty(message = "Необходим список бронирований!")
+                                                       @Size(max = MAX_BATCH_SIZE, message = "Слишком много бронирований в одном запросе!")
+                                                       List<@Valid CreateBookingDto> createBookingDtos) {
+        log.info("Пакетное создание бронирований userId={}, bookings={}", userId, createBookingDtos.size());
+        return bookingService.createBookings(userId, createBookingDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto updateBookingStatus(@RequestHeader("X-Sharer-User-Id") Long userId,
                                           @PathVariable Long bookingId,
@@ -61,4 +127,44 @@ public class BookingController {
         log.info("Обновлении статуса бронировании userId={}, bookingId={}, approved={}", userId, bookingId, approved);
         return bookingService.updateBookingStatus(userId, bookingId, approved);
     }
+
+    @PatchMapping("/batch")
+    public List<BookingDecisionResultDto> updateBookingStatuses(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                @RequestBody
+                                                                @NotEmpty(message = "Необходим список решений!")
+                                                                @Size(max = MAX_BATCH_SIZE, message = "Слишком много решений в одном запросе!")
+                                                                List<@Valid BookingDecisionDto> decisions) {
+        log.info("Пакетное обновление статусов бронирований userId={}, decisions={}", userId, decisions.size());
+        return bookingService.updateBookingStatuses(userId, decisions);
+    }
+
+    private void writeLine(HttpServletResponse response, BookingDto booking) {
+        try {
+            boolean first = !response.isCommitted();
+            if (first) {
+                response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            }
+            OutputStream output = response.getOutputStream();
+            output.write(objectMapper.writeValueAsBytes(booking));
+            output.write('\n');
+            if (first) {
+                response.flushBuffer();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private PageCursor parseCursor(String cursor) {
+        return cursor.isBlank() ? null : PageCursor.decode(cursor);
+    }
+
+    private ResponseEntity<Collection<BookingDto>> withNextCursor(Collection<BookingDto> bookings, int size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (bookings.size() == size) {
+            BookingDto last = bookings.stream().skip(size - 1).findFirst().orElseThrow();
+            response.header(PageCursor.NEXT_CURSOR_HEADER, new PageCursor(last.getStart(), last.getId()).encode());
+        }
+        return response.body(bookings);
+    }
 }
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+import javax.validation.constraints.NotNull;
+
+@Value
+@RequiredArgsConstructor
+@Builder
+public class BookingDecisionDto {
+    @NotNull(message = "Необходим id бронирования!")
+    Long bookingId;
+
+    @NotNull(message = "Необходимо решение по бронированию!")
+    Boolean approved;
+}
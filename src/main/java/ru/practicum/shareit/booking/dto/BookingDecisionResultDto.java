@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import ru.practicum.shareit.booking.model.BookingDecisionOutcome;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+@Value
+@RequiredArgsConstructor
+@Builder(toBuilder = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingDecisionResultDto {
+    Long bookingId;
+
+    BookingDecisionOutcome outcome;
+
+    /**
+     * Status of the booking after the batch, unknown for bookings that were not found.
+     */
+    BookingStatus status;
+
+    /**
+     * Number of overlapping WAITING bookings rejected by this approval.
+     */
+    Integer autoRejected;
+
+    String error;
+}
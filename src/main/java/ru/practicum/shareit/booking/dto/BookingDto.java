@@ -1,5 +1,7 @@
 package ru.practicum.shareit.booking.dto;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -8,8 +10,8 @@ import ru.practicum.shareit.user.dto.UserDto;
 import java.time.LocalDateTime;
 
 @Value
-@RequiredArgsConstructor
-@Builder
+@RequiredArgsConstructor(onConstructor_ = @JsonCreator)
+@Builder(toBuilder = true)
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class BookingDto {
     @EqualsAndHashCode.Include
@@ -24,4 +26,20 @@ public class BookingDto {
     LocalDateTime start;
 
     LocalDateTime end;
+
+    /**
+     * Number of overlapping WAITING bookings rejected by this approval, only set in the approval response.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    Integer autoRejected;
+
+    /**
+     * Flat form of the booking_view row, so that the list queries can select it with a constructor expression.
+     */
+    public BookingDto(Long id, Long itemId, String itemName, String itemDescription, Boolean itemAvailable,
+                      Long itemRequestId, Long bookerId, String bookerName, String bookerEmail, BookingStatus status,
+                      LocalDateTime start, LocalDateTime end) {
+        this(id, new ItemDto(itemId, itemName, itemDescription, itemAvailable, itemRequestId),
+                new UserDto(bookerId, bookerName, bookerEmail), status, start, end, null);
+    }
 }
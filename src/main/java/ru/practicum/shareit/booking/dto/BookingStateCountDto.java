@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+@Value
+@RequiredArgsConstructor
+@Builder
+public class BookingStateCountDto {
+    Long all;
+
+    Long current;
+
+    Long past;
+
+    Long future;
+
+    Long waiting;
+
+    Long rejected;
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.dto.create;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingCreationOutcome;
+
+/**
+ * Result of one entry of a batch creation, returned at the position of the entry in the request.
+ */
+@Value
+@RequiredArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CreateBookingResultDto {
+    BookingCreationOutcome outcome;
+
+    BookingDto booking;
+
+    String error;
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a booking is requested.
+ */
+@Value
+public class BookingCreatedEvent {
+    Long bookingId;
+    Long itemId;
+    LocalDateTime start;
+    LocalDateTime end;
+}
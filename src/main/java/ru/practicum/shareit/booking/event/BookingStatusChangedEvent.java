@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.Value;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+/**
+ * Published when a booking is approved or rejected.
+ */
+@Value
+public class BookingStatusChangedEvent {
+    Long bookingId;
+    Long itemId;
+    BookingStatus status;
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.Value;
+import ru.practicum.shareit.booking.timer.BookingTransition;
+
+import java.util.List;
+
+/**
+ * Published by {@link ru.practicum.shareit.booking.timer.BookingTransitionTimer} for the bookings that started
+ * or ended within one tick. Bookings are not re-read before publishing: some of them may have been rejected since.
+ */
+@Value
+public class BookingTransitionEvent {
+    BookingTransition transition;
+    List<Long> bookingIds;
+}
@@ -0,0 +1,258 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.event.BookingTransitionEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingItemPeriod;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.timer.BookingTransition;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory index of APPROVED booking intervals, kept in a sorted set per item. Only APPROVED bookings are
+ * indexed, since the overlap checks never look at other statuses. Every item has its own lock, created while
+ * some thread holds or waits for it and dropped afterwards, so requests for different items never contend.
+ * Reads and writes of an item must happen inside {@link #withItemLock(Long, Supplier)}. Only items with indexed
+ * bookings have an entry: probes never add one, and bookings are dropped once they end.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingIntervalIndex {
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private final BookingRepository bookingRepository;
+    private final ConcurrentMap<Long, ItemIntervals> items = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Long> bookingItems = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, ItemLock> locks = new ConcurrentHashMap<>();
+
+    /**
+     * Runs while the context starts, before the web server accepts requests, so that no check sees a partly
+     * loaded index. A failure stops the startup.
+     */
+    @PostConstruct
+    public void warmUp() {
+        LocalDateTime now = LocalDateTime.now();
+        long lastId = 0;
+        int loaded = 0;
+        List<BookingItemPeriod> batch;
+        do {
+            batch = bookingRepository.findItemPeriodsAfter(lastId, Set.of(BookingStatus.APPROVED), now,
+                    PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (BookingItemPeriod booking : batch) {
+                Interval interval = new Interval(booking.getId(), booking.getStart(), booking.getEnd());
+                withItemLock(booking.getItemId(), () -> put(booking.getItemId(), interval));
+            }
+            loaded += batch.size();
+            lastId = batch.isEmpty() ? lastId : batch.get(batch.size() - 1).getId();
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        log.info("Индекс интервалов бронирований загружен, bookings={}, items={}", loaded, items.size());
+    }
+
+    public <T> T withItemLock(Long itemId, Supplier<T> action) {
+        ItemLock lock = lock(itemId);
+        try {
+            return action.get();
+        } finally {
+            unlock(itemId, lock);
+        }
+    }
+
+    /**
+     * Runs the action holding the locks of all the items. Items are locked in id order,
+     * so that two callers locking overlapping sets of items cannot deadlock.
+     */
+    public <T> T withItemLocks(Collection<Long> itemIds, Supplier<T> action) {
+        List<Long> ordered = new ArrayList<>(new TreeSet<>(itemIds));
+        List<ItemLock> held = new ArrayList<>();
+        try {
+            for (Long itemId : ordered) {
+                held.add(lock(itemId));
+            }
+            return action.get();
+        } finally {
+            for (int i = held.size() - 1; i >= 0; i--) {
+                unlock(ordered.get(i), held.get(i));
+            }
+        }
+    }
+
+    /**
+     * Checks whether [start, end) intersects an APPROVED booking of the item other than {@code excludeBookingId}.
+     * APPROVED intervals of one item are kept disjoint, so only the closest one starting before {@code end} matters.
+     */
+    public boolean hasApprovedOverlap(Long itemId, LocalDateTime start, LocalDateTime end, Long excludeBookingId) {
+        ItemIntervals itemIntervals = items.get(itemId);
+        if (itemIntervals == null) {
+            return false;
+        }
+        Iterator<Interval> candidates = itemIntervals.sorted
+                .headSet(Interval.probe(end), false).descendingIterator();
+        while (candidates.hasNext()) {
+            Interval candidate = candidates.next();
+            if (Objects.equals(candidate.bookingId, excludeBookingId)) {
+                continue;
+            }
+            return candidate.end.isAfter(start);
+        }
+        return false;
+    }
+
+    /**
+     * Puts the booking into the index according to its current status. When called inside a transaction
+     * the change is reverted if that transaction does not commit.
+     */
+    public void register(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        Long bookingId = booking.getId();
+        Interval previous = booking.getStatus() == BookingStatus.APPROVED
+                ? put(itemId, Interval.of(booking))
+                : remove(itemId, bookingId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        withItemLock(itemId, () -> previous == null
+                                ? remove(itemId, bookingId)
+                                : put(itemId, previous));
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Ended bookings can no longer overlap a new one, so their intervals and emptied items are dropped.
+     */
+    @EventListener
+    public void onBookingsEnded(BookingTransitionEvent event) {
+        if (event.getTransition() != BookingTransition.ENDED) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Long bookingId : event.getBookingIds()) {
+            Long itemId = bookingItems.get(bookingId);
+            if (itemId != null) {
+                withItemLock(itemId, () -> {
+                    ItemIntervals itemIntervals = items.get(itemId);
+                    Interval interval = itemIntervals == null ? null : itemIntervals.byId.get(bookingId);
+                    return interval != null && !interval.end.isAfter(now) ? remove(itemId, bookingId) : null;
+                });
+            }
+        }
+    }
+
+    public int size() {
+        return bookingItems.size();
+    }
+
+    public int itemCount() {
+        return items.size();
+    }
+
+    private Interval put(Long itemId, Interval interval) {
+        ItemIntervals itemIntervals = items.computeIfAbsent(itemId, id -> new ItemIntervals());
+        Interval previous = itemIntervals.remove(interval.bookingId);
+        itemIntervals.add(interval);
+        bookingItems.put(interval.bookingId, itemId);
+        return previous;
+    }
+
+    private Interval remove(Long itemId, Long bookingId) {
+        ItemIntervals itemIntervals = items.get(itemId);
+        if (itemIntervals == null) {
+            return null;
+        }
+        Interval previous = itemIntervals.remove(bookingId);
+        if (previous != null) {
+            bookingItems.remove(bookingId);
+        }
+        if (itemIntervals.byId.isEmpty()) {
+            items.remove(itemId);
+        }
+        return previous;
+    }
+
+    /**
+     * Takes the lock of the item, creating it if no other thread holds or waits for it. The holder count is
+     * changed only inside the map's compute, so a lock is never dropped while a thread is about to take it.
+     */
+    private ItemLock lock(Long itemId) {
+        ItemLock lock = locks.compute(itemId, (id, existing) -> {
+            ItemLock itemLock = existing == null ? new ItemLock() : existing;
+            itemLock.holders++;
+            return itemLock;
+        });
+        lock.lock.lock();
+        return lock;
+    }
+
+    private void unlock(Long itemId, ItemLock lock) {
+        lock.lock.unlock();
+        locks.computeIfPresent(itemId, (id, itemLock) -> --itemLock.holders == 0 ? null : itemLock);
+    }
+
+    private static class ItemLock {
+        private final ReentrantLock lock = new ReentrantLock();
+        private int holders;
+    }
+
+    private static class ItemIntervals {
+        private final Map<Long, Interval> byId = new HashMap<>();
+        private final NavigableSet<Interval> sorted = new TreeSet<>();
+
+        private void add(Interval interval) {
+            byId.put(interval.bookingId, interval);
+            sorted.add(interval);
+        }
+
+        private Interval remove(Long bookingId) {
+            Interval previous = byId.remove(bookingId);
+            if (previous != null) {
+                sorted.remove(previous);
+            }
+            return previous;
+        }
+    }
+
+    private static class Interval implements Comparable<Interval> {
+        private final Long bookingId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        private Interval(Long bookingId, LocalDateTime start, LocalDateTime end) {
+            this.bookingId = bookingId;
+            this.start = start;
+            this.end = end;
+        }
+
+        private static Interval of(Booking booking) {
+            return new Interval(booking.getId(), booking.getStart(), booking.getEnd());
+        }
+
+        private static Interval probe(LocalDateTime start) {
+            return new Interval(Long.MIN_VALUE, start, start);
+        }
+
+        @Override
+        public int compareTo(Interval other) {
+            int byStart = start.compareTo(other.start);
+            return byStart != 0 ? byStart : Long.compare(bookingId, other.bookingId);
+        }
+    }
+}
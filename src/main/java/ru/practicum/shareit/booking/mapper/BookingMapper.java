@@ -13,11 +13,14 @@ import java.util.List;
 @Mapper(componentModel = "spring")
 public interface BookingMapper {
     @Mapping(target = "id", source = "createBookingDto.id")
+    @Mapping(target = "version", ignore = true)
     Booking toModel(CreateBookingDto createBookingDto, User booker, Item item);
 
+    @Mapping(target = "autoRejected", ignore = true)
     BookingDto toDto(Booking booking);
 
     List<BookingDto> toDto(List<Booking> bookings);
 
+    @Mapping(target = "autoRejected", ignore = true)
     BookingDto toDtoFromCreate(CreateBookingDto createBookingDto);
 }
@@ -1,6 +1,5 @@
 package ru.practicum.shareit.booking.model;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -11,12 +10,15 @@ import javax.persistence.*;
 import java.time.LocalDateTime;
 
 
-@AllArgsConstructor
 @NoArgsConstructor
 @Getter
 @Setter
 @Entity
 @Table(name = "bookings")
+@NamedEntityGraph(name = "Booking.itemAndBooker", attributeNodes = {
+        @NamedAttributeNode("item"),
+        @NamedAttributeNode("booker")
+})
 public class Booking {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -40,4 +42,17 @@ public class Booking {
 
     @Column(name = "date_end")
     private LocalDateTime end;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    public Booking(Long id, Item item, BookingStatus status, User booker, LocalDateTime start, LocalDateTime end) {
+        this.id = id;
+        this.item = item;
+        this.status = status;
+        this.booker = booker;
+        this.start = start;
+        this.end = end;
+    }
 }
\ No newline at end of file
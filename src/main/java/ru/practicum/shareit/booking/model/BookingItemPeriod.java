@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking.model;
+
+/**
+ * {@link BookingPeriod} together with the id of the booked item.
+ */
+public interface BookingItemPeriod extends BookingPeriod {
+    Long getItemId();
+}
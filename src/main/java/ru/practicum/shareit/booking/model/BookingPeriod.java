@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Only the id, the status and the period of a booking, for loading many bookings without their entities.
+ */
+public interface BookingPeriod {
+    Long getId();
+
+    BookingStatus getStatus();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+}
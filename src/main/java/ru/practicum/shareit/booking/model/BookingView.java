@@ -0,0 +1,60 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Row of the booking_view read model: a booking together with the item and booker fields that booking lists
+ * show, so that a list is read from one table without joins. Written only through {@code BookingViewRepository}.
+ */
+@NoArgsConstructor
+@Getter
+@Entity
+@Immutable
+@Table(name = "booking_view", schema = "public")
+public class BookingView {
+    @Id
+    @Column(name = "booking_id")
+    private Long id;
+
+    @Column(name = "booker_id")
+    private Long bookerId;
+
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private BookingStatus status;
+
+    @Column(name = "date_start")
+    private LocalDateTime start;
+
+    @Column(name = "date_end")
+    private LocalDateTime end;
+
+    @Column(name = "item_name")
+    private String itemName;
+
+    @Column(name = "item_description")
+    private String itemDescription;
+
+    @Column(name = "item_available")
+    private Boolean itemAvailable;
+
+    @Column(name = "item_request_id")
+    private Long itemRequestId;
+
+    @Column(name = "booker_name")
+    private String bookerName;
+
+    @Column(name = "booker_email")
+    private String bookerEmail;
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+
+public interface BookingBatchRepository {
+    /**
+     * Inserts new bookings with one JDBC batch and sets their generated ids. Identity ids keep Hibernate
+     * from batching inserts, so the rows are written past the persistence context and stay detached.
+     */
+    void insertAll(List<Booking> bookings);
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+
+import javax.persistence.EntityManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class BookingBatchRepositoryImpl implements BookingBatchRepository {
+    private static final String INSERT_BOOKING = "INSERT INTO bookings " +
+            "(item_id, status, booker_id, date_start, date_end, version) VALUES (?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    @Override
+    public void insertAll(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_BOOKING, new String[]{"id"})) {
+                for (Booking booking : bookings) {
+                    statement.setLong(1, booking.getItem().getId());
+                    statement.setString(2, booking.getStatus().name());
+                    statement.setLong(3, booking.getBooker().getId());
+                    statement.setTimestamp(4, Timestamp.valueOf(booking.getStart()));
+                    statement.setTimestamp(5, Timestamp.valueOf(booking.getEnd()));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    for (Booking booking : bookings) {
+                        if (!keys.next()) {
+                            throw new DataRetrievalFailureException("Не получены id созданных бронирований");
+                        }
+                        booking.setId(keys.getLong(1));
+                        booking.setVersion(0L);
+                    }
+                }
+            }
+            return null;
+        });
+    }
+}
@@ -1,64 +1,101 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingItemPeriod;
+import ru.practicum.shareit.booking.model.BookingPeriod;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    @Query(value = "SELECT bk FROM Booking bk JOIN FETCH bk.item i JOIN FETCH bk.booker u " +
-            "WHERE u.id = :bookerId ORDER BY bk.start DESC")
-    List<Booking> findBookingsForUserAll(Long bookerId, Pageable page);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingBatchRepository {
+    int EXPORT_FETCH_SIZE = 500;
 
-    @Query(value = "SELECT bk FROM Booking bk JOIN FETCH bk.item i JOIN FETCH bk.booker u " +
-            "WHERE u.id = :bookerId AND bk.start > :now ORDER BY bk.start DESC")
-    List<Booking> findBookingsForUserFuture(Long bookerId, LocalDateTime now, Pageable page);
+    @EntityGraph(value = "Booking.itemAndBooker")
+    Optional<Booking> findWithItemAndBookerById(Long id);
 
+    /**
+     * All bookings of the owner's items in the order of {@link #findBookingsForItemOwnerAll}, read through
+     * a forward-only cursor {@value #EXPORT_FETCH_SIZE} rows at a time. Has to be consumed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
     @Query(value = "SELECT bk FROM Booking bk JOIN FETCH bk.item i JOIN FETCH bk.booker u " +
-            "WHERE u.id = :bookerId AND bk.end < :now ORDER BY bk.start DESC")
-    List<Booking> findBookingsForUserPast(Long bookerId, LocalDateTime now, Pageable page);
+            "WHERE i.ownerId = :ownerId ORDER BY bk.start DESC, bk.id DESC")
+    Stream<Booking> streamBookingsForItemOwner(Long ownerId);
 
-    @Query(value = "SELECT bk FROM Booking bk JOIN FETCH bk.item i JOIN FETCH bk.booker u " +
-            "WHERE u.id = :bookerId AND bk.start < :now AND bk.end > :now ORDER BY bk.start DESC")
-    List<Booking> findBookingsForUserCurrent(Long bookerId, LocalDateTime now, Pageable page);
+    @Query(value = "SELECT DISTINCT ON (item_id) bk.* FROM bookings bk WHERE bk.item_id IN :itemIds AND " +
+            "(bk.date_end < :time OR bk.date_start < :time AND bk.date_end > :time) AND bk.status = :status " +
+            "ORDER BY bk.item_id, bk.date_end DESC", nativeQuery = true)
+    List<Booking> findLastBookingWithStatus(Set<Long> itemIds, LocalDateTime time, String status);
 
-    @Query(value = "SELECT bk FROM Booking bk JOIN FETCH bk.item i JOIN FETCH bk.booker u " +
-            "WHERE u.id = ?1 AND bk.status = ?2 ORDER BY bk.start DESC")
-    List<Booking> findBookingsForUserByStatus(Long bookerId, BookingStatus status, Pageable page);
+    @Query(value = "SELECT DISTINCT ON (item_id) bk.* FROM bookings bk WHERE bk.item_id IN :itemIds AND " +
+            "bk.date_start > :time AND bk.status = :status ORDER BY bk.item_id, bk.date_start", nativeQuery = true)
+    List<Booking> findNextBookingWithStatus(Set<Long> itemIds, LocalDateTime time, String status);
 
     @Query(value = "SELECT bk FROM Booking bk JOIN FETCH bk.item i JOIN FETCH bk.booker u " +
-            "WHERE i.ownerId = :ownerId ORDER BY bk.start DESC")
-    List<Booking> findBookingsForItemOwnerAll(Long ownerId, Pageable page);
+            "WHERE i.ownerId = :ownerId AND bk.id IN :ids")
+    List<Booking> findBookingsForItemOwnerByIds(Long ownerId, Collection<Long> ids);
 
-    @Query(value = "SELECT bk FROM Booking bk JOIN FETCH bk.item i JOIN FETCH bk.booker u " +
-            "WHERE i.ownerId = :ownerId AND bk.start > :now ORDER BY bk.start DESC")
-    List<Booking> findBookingsForItemOwnerFuture(Long ownerId, LocalDateTime now, Pageable page);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "SELECT bk FROM Booking bk WHERE bk.id IN :ids AND bk.status = :status ORDER BY bk.id")
+    List<Booking> findWithStatusForUpdate(Collection<Long> ids, BookingStatus status);
 
-    @Query(value = "SELECT bk FROM Booking bk JOIN FETCH bk.item i JOIN FETCH bk.booker u " +
-            "WHERE i.ownerId = :ownerId AND bk.end < :now ORDER BY bk.start DESC")
-    List<Booking> findBookingsForItemOwnerPast(Long ownerId, LocalDateTime now, Pageable page);
+    List<Booking> findAllByItemIdInAndStatusAndStartBeforeAndEndAfter(Collection<Long> itemIds, BookingStatus status,
+                                                                      LocalDateTime end, LocalDateTime start);
 
-    @Query(value = "SELECT bk FROM Booking bk JOIN FETCH bk.item i JOIN FETCH bk.booker u " +
-            "WHERE i.ownerId = :ownerId AND bk.start < :now AND bk.end > :now ORDER BY bk.start DESC")
-    List<Booking> findBookingsForItemOwnerCurrent(Long ownerId, LocalDateTime now, Pageable page);
+    List<Booking> findAllByItemIdAndBookerIdAndEndBefore(Long itemId, Long bookerId, LocalDateTime dateTime);
 
-    @Query(value = "SELECT bk FROM Booking bk JOIN FETCH bk.item i JOIN FETCH bk.booker u " +
-            "WHERE i.ownerId = :ownerId AND bk.status = :status ORDER BY bk.start DESC")
-    List<Booking> findBookingsForItemOwnerStatus(Long ownerId, BookingStatus status, Pageable page);
+    boolean existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(Long itemId, BookingStatus status,
+                                                                     LocalDateTime end, LocalDateTime start,
+                                                                     Long excludeId);
 
-    @Query(value = "SELECT DISTINCT ON (item_id) bk.* FROM bookings bk WHERE bk.item_id IN :itemIds AND " +
-            "(bk.date_end < :time OR bk.date_start < :time AND bk.date_end > :time) AND bk.status = :status " +
-            "ORDER BY bk.date_end DESC", nativeQuery = true)
-    List<Booking> findLastBookingWithStatus(Set<Long> itemIds, LocalDateTime time, String status);
+    @Query(value = "SELECT bk FROM Booking bk WHERE bk.status = :status AND bk.start <= :time " +
+            "ORDER BY bk.start, bk.id")
+    List<Booking> findStartedWithStatus(BookingStatus status, LocalDateTime time, Pageable page);
 
-    @Query(value = "SELECT DISTINCT ON (item_id) bk.* FROM bookings bk WHERE bk.item_id IN :itemIds AND " +
-            "bk.date_start > :time AND bk.status = :status ORDER BY bk.date_start", nativeQuery = true)
-    List<Booking> findNextBookingWithStatus(Set<Long> itemIds, LocalDateTime time, String status);
+    @Query(value = "SELECT bk.id FROM Booking bk WHERE bk.id IN :ids AND bk.status = :status")
+    Set<Long> findIdsWithStatus(Collection<Long> ids, BookingStatus status);
 
-    List<Booking> findAllByItemIdAndBookerIdAndEndBefore(Long itemId, Long bookerId, LocalDateTime dateTime);
-}
\ No newline at end of file
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE Booking bk SET bk.status = :status, bk.version = bk.version + 1 WHERE bk.id IN :ids AND bk.status = :currentStatus")
+    int updateStatus(Collection<Long> ids, BookingStatus currentStatus, BookingStatus status);
+
+    /**
+     * Locks the bookings of the item with the status that overlap [start, end), other than {@code excludeId},
+     * so that exactly these can then be moved to another status with {@link #updateStatus}.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "SELECT bk FROM Booking bk WHERE bk.item.id = :itemId AND bk.status = :status " +
+            "AND bk.start < :end AND bk.end > :start AND bk.id <> :excludeId ORDER BY bk.id")
+    List<Booking> findOverlappingWithStatus(Long itemId, LocalDateTime start, LocalDateTime end, Long excludeId,
+                                            BookingStatus status);
+
+    @Query(value = "SELECT bk.id AS id, bk.item.id AS itemId, bk.status AS status, bk.start AS start, bk.end AS end " +
+            "FROM Booking bk WHERE bk.id > :id AND bk.status IN :statuses AND bk.end > :dateTime ORDER BY bk.id")
+    List<BookingItemPeriod> findItemPeriodsAfter(Long id, Collection<BookingStatus> statuses, LocalDateTime dateTime,
+                                                 Pageable page);
+
+    List<BookingPeriod> findAllByIdGreaterThanAndStatusInAndEndAfterOrderById(Long id, Collection<BookingStatus> statuses,
+                                                                               LocalDateTime dateTime, Pageable page);
+
+    List<BookingPeriod> findAllByItemIdAndStatusInAndStartBeforeAndEndAfterOrderByStart(Long itemId,
+                                                                                         Collection<BookingStatus> statuses,
+                                                                                         LocalDateTime end,
+                                                                                         LocalDateTime start);
+}
@@ -0,0 +1,166 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStateCountDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingView;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * booking_view, the read model behind the booking lists. Every list reads the table alone, through
+ * the booker or owner index. Rows are written by the booking write path with the statements below,
+ * which copy the current state from bookings, items and users.
+ */
+public interface BookingViewRepository extends JpaRepository<BookingView, Long> {
+    /**
+     * The lists select {@link BookingDto} directly: no entities, no persistence context entries, no mapping pass.
+     */
+    String SELECT_DTO = "SELECT new ru.practicum.shareit.booking.dto.BookingDto(v.id, v.itemId, v.itemName, " +
+            "v.itemDescription, v.itemAvailable, v.itemRequestId, v.bookerId, v.bookerName, v.bookerEmail, " +
+            "v.status, v.start, v.end) FROM BookingView v ";
+
+    @Query(value = SELECT_DTO + "WHERE v.bookerId = :bookerId ORDER BY v.start DESC, v.id DESC")
+    List<BookingDto> findBookingsForUserAll(Long bookerId, Pageable page);
+
+    @Query(value = SELECT_DTO +
+            "WHERE v.bookerId = :bookerId AND v.start > :now ORDER BY v.start DESC, v.id DESC")
+    List<BookingDto> findBookingsForUserFuture(Long bookerId, LocalDateTime now, Pageable page);
+
+    @Query(value = SELECT_DTO +
+            "WHERE v.bookerId = :bookerId AND v.end < :now ORDER BY v.start DESC, v.id DESC")
+    List<BookingDto> findBookingsForUserPast(Long bookerId, LocalDateTime now, Pageable page);
+
+    @Query(value = SELECT_DTO +
+            "WHERE v.bookerId = :bookerId AND v.start < :now AND v.end > :now ORDER BY v.start DESC, v.id DESC")
+    List<BookingDto> findBookingsForUserCurrent(Long bookerId, LocalDateTime now, Pageable page);
+
+    @Query(value = SELECT_DTO +
+            "WHERE v.bookerId = ?1 AND v.status = ?2 ORDER BY v.start DESC, v.id DESC")
+    List<BookingDto> findBookingsForUserByStatus(Long bookerId, BookingStatus status, Pageable page);
+
+    @Query(value = SELECT_DTO + "WHERE v.ownerId = :ownerId ORDER BY v.start DESC, v.id DESC")
+    List<BookingDto> findBookingsForItemOwnerAll(Long ownerId, Pageable page);
+
+    @Query(value = SELECT_DTO +
+            "WHERE v.ownerId = :ownerId AND v.start > :now ORDER BY v.start DESC, v.id DESC")
+    List<BookingDto> findBookingsForItemOwnerFuture(Long ownerId, LocalDateTime now, Pageable page);
+
+    @Query(value = SELECT_DTO +
+            "WHERE v.ownerId = :ownerId AND v.end < :now ORDER BY v.start DESC, v.id DESC")
+    List<BookingDto> findBookingsForItemOwnerPast(Long ownerId, LocalDateTime now, Pageable page);
+
+    @Query(value = SELECT_DTO +
+            "WHERE v.ownerId = :ownerId AND v.start < :now AND v.end > :now ORDER BY v.start DESC, v.id DESC")
+    List<BookingDto> findBookingsForItemOwnerCurrent(Long ownerId, LocalDateTime now, Pageable page);
+
+    @Query(value = SELECT_DTO +
+            "WHERE v.ownerId = :ownerId AND v.status = :status ORDER BY v.start DESC, v.id DESC")
+    List<BookingDto> findBookingsForItemOwnerStatus(Long ownerId, BookingStatus status, Pageable page);
+
+    /**
+     * Keyset pages. {@code v.start <= :cursorStart} follows from the OR, but only in this form can it bound the
+     * index scan: on Postgres the plan is an Index Scan on booking_view_booker_idx (booking_view_owner_idx for
+     * owners) with {@code Index Cond: booker_id = $1 AND date_start <= $2}, and the OR is left as a filter that
+     * only drops the rows sharing the cursor's start. A deep page then reads as many index entries as the first.
+     */
+    @Query(value = SELECT_DTO + "WHERE v.bookerId = :bookerId AND " +
+            "v.start <= :cursorStart AND (v.start < :cursorStart OR v.start = :cursorStart AND v.id < :cursorId) " +
+            "ORDER BY v.start DESC, v.id DESC")
+    List<BookingDto> findBookingsForUserAllAfter(Long bookerId, LocalDateTime cursorStart, Long cursorId, Pageable page);
+
+    @Query(value = SELECT_DTO + "WHERE v.bookerId = :bookerId AND v.start > :now AND " +
+            "v.start <= :cursorStart AND (v.start < :cursorStart OR v.start = :cursorStart AND v.id < :cursorId) " +
+            "ORDER BY v.start DESC, v.id DESC")
+    List<BookingDto> findBookingsForUserFutureAfter(Long bookerId, LocalDateTime now, LocalDateTime cursorStart, Long cursorId, Pageable page);
+
+    @Query(value = SELECT_DTO + "WHERE v.bookerId = :bookerId AND v.end < :now AND " +
+            "v.start <= :cursorStart AND (v.start < :cursorStart OR v.start = :cursorStart AND v.id < :cursorId) " +
+            "ORDER BY v.start DESC, v.id DESC")
+    List<BookingDto> findBookingsForUserPastAfter(Long bookerId, LocalDateTime now, LocalDateTime cursorStart, Long cursorId, Pageable page);
+
+    @Query(value = SELECT_DTO + "WHERE v.bookerId = :bookerId AND v.start < :now AND v.end > :now AND " +
+            "v.start <= :cursorStart AND (v.start < :cursorStart OR v.start = :cursorStart AND v.id < :cursorId) " +
+            "ORDER BY v.start DESC, v.id DESC")
+    List<BookingDto> findBookingsForUserCurrentAfter(Long bookerId, LocalDateTime now, LocalDateTime cursorStart, Long cursorId, Pageable page);
+
+    @Query(value = SELECT_DTO + "WHERE v.bookerId = :bookerId AND v.status = :status AND " +
+            "v.start <= :cursorStart AND (v.start < :cursorStart OR v.start = :cursorStart AND v.id < :cursorId) " +
+            "ORDER BY v.start DESC, v.id DESC")
+    List<BookingDto> findBookingsForUserByStatusAfter(Long bookerId, BookingStatus status, LocalDateTime cursorStart, Long cursorId, Pageable page);
+
+    @Query(value = SELECT_DTO + "WHERE v.ownerId = :ownerId AND " +
+            "v.start <= :cursorStart AND (v.start < :cursorStart OR v.start = :cursorStart AND v.id < :cursorId) " +
+            "ORDER BY v.start DESC, v.id DESC")
+    List<BookingDto> findBookingsForItemOwnerAllAfter(Long ownerId, LocalDateTime cursorStart, Long cursorId, Pageable page);
+
+    @Query(value = SELECT_DTO + "WHERE v.ownerId = :ownerId AND v.start > :now AND " +
+            "v.start <= :cursorStart AND (v.start < :cursorStart OR v.start = :cursorStart AND v.id < :cursorId) " +
+            "ORDER BY v.start DESC, v.id DESC")
+    List<BookingDto> findBookingsForItemOwnerFutureAfter(Long ownerId, LocalDateTime now, LocalDateTime cursorStart, Long cursorId, Pageable page);
+
+    @Query(value = SELECT_DTO + "WHERE v.ownerId = :ownerId AND v.end < :now AND " +
+            "v.start <= :cursorStart AND (v.start < :cursorStart OR v.start = :cursorStart AND v.id < :cursorId) " +
+            "ORDER BY v.start DESC, v.id DESC")
+    List<BookingDto> findBookingsForItemOwnerPastAfter(Long ownerId, LocalDateTime now, LocalDateTime cursorStart, Long cursorId, Pageable page);
+
+    @Query(value = SELECT_DTO + "WHERE v.ownerId = :ownerId AND v.start < :now AND v.end > :now AND " +
+            "v.start <= :cursorStart AND (v.start < :cursorStart OR v.start = :cursorStart AND v.id < :cursorId) " +
+            "ORDER BY v.start DESC, v.id DESC")
+    List<BookingDto> findBookingsForItemOwnerCurrentAfter(Long ownerId, LocalDateTime now, LocalDateTime cursorStart, Long cursorId, Pageable page);
+
+    @Query(value = SELECT_DTO + "WHERE v.ownerId = :ownerId AND v.status = :status AND " +
+            "v.start <= :cursorStart AND (v.start < :cursorStart OR v.start = :cursorStart AND v.id < :cursorId) " +
+            "ORDER BY v.start DESC, v.id DESC")
+    List<BookingDto> findBookingsForItemOwnerStatusAfter(Long ownerId, BookingStatus status, LocalDateTime cursorStart, Long cursorId, Pageable page);
+
+    @Query(value = "SELECT new ru.practicum.shareit.booking.dto.BookingStateCountDto(COUNT(v), " +
+            "COALESCE(SUM(CASE WHEN v.start < :now AND v.end > :now THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN v.end < :now THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN v.start > :now THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN v.status = :waiting THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN v.status = :rejected THEN 1 ELSE 0 END), 0)) " +
+            "FROM BookingView v WHERE v.bookerId = :bookerId")
+    BookingStateCountDto countBookingsForUserByState(Long bookerId, LocalDateTime now, BookingStatus waiting,
+                                                     BookingStatus rejected);
+
+    @Query(value = "SELECT new ru.practicum.shareit.booking.dto.BookingStateCountDto(COUNT(v), " +
+            "COALESCE(SUM(CASE WHEN v.start < :now AND v.end > :now THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN v.end < :now THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN v.start > :now THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN v.status = :waiting THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN v.status = :rejected THEN 1 ELSE 0 END), 0)) " +
+            "FROM BookingView v WHERE v.ownerId = :ownerId")
+    BookingStateCountDto countBookingsForItemOwnerByState(Long ownerId, LocalDateTime now, BookingStatus waiting,
+                                                          BookingStatus rejected);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO booking_view (booking_id, booker_id, owner_id, item_id, status, date_start, " +
+            "date_end, item_name, item_description, item_available, item_request_id, booker_name, booker_email) " +
+            "SELECT b.id, b.booker_id, i.owner_id, i.id, b.status, b.date_start, b.date_end, " +
+            "i.name, i.description, i.available, i.request_id, u.name, u.email " +
+            "FROM bookings b JOIN items i ON i.id = b.item_id JOIN users u ON u.id = b.booker_id " +
+            "WHERE b.id IN :bookingIds", nativeQuery = true)
+    int insertForBookings(Collection<Long> bookingIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE booking_view v SET status = (SELECT b.status FROM bookings b WHERE b.id = v.booking_id) " +
+            "WHERE v.booking_id IN :bookingIds", nativeQuery = true)
+    int copyStatus(Collection<Long> bookingIds);
+
+    @Modifying
+    @Query(value = "UPDATE booking_view SET item_name = :name, item_description = :description, " +
+            "item_available = :available, item_request_id = :requestId WHERE item_id = :itemId", nativeQuery = true)
+    int updateItem(Long itemId, String name, String description, Boolean available, Long requestId);
+
+    @Modifying
+    @Query(value = "UPDATE booking_view SET booker_name = :name, booker_email = :email WHERE booker_id = :bookerId",
+            nativeQuery = true)
+    int updateBooker(Long bookerId, String name, String email);
+}
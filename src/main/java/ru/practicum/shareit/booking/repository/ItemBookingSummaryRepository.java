@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+    @Query(value = "SELECT s FROM ItemBookingSummary s LEFT JOIN FETCH s.lastBooking LEFT JOIN FETCH s.nextBooking " +
+            "WHERE s.itemId IN :itemIds")
+    List<ItemBookingSummary> findAllByItemIdIn(Set<Long> itemIds);
+
+    @Query(value = "SELECT s.itemId FROM ItemBookingSummary s WHERE s.validUntil <= :now ORDER BY s.validUntil")
+    List<Long> findExpiredItemIds(LocalDateTime now, Pageable page);
+
+    @Query(value = "SELECT s.itemId FROM ItemBookingSummary s WHERE s.nextBooking.id IN :bookingIds")
+    List<Long> findItemIdsByNextBookingIdIn(Collection<Long> bookingIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "SELECT s FROM ItemBookingSummary s WHERE s.itemId IN :itemIds")
+    List<ItemBookingSummary> lockAllByItemIdIn(Collection<Long> itemIds);
+}
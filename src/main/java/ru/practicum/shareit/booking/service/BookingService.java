@@ -1,27 +1,44 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStateCountDto;
 import ru.practicum.shareit.booking.dto.create.CreateBookingDto;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.create.CreateBookingResultDto;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.utils.PageCursor;
 
 import java.util.Collection;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingDto createBooking(Long userId, CreateBookingDto createBookingDto);
 
+    List<CreateBookingResultDto> createBookings(Long userId, List<CreateBookingDto> createBookingDtos);
+
     BookingDto updateBookingStatus(Long userId, Long bookingId, boolean approved);
 
+    List<BookingDecisionResultDto> updateBookingStatuses(Long userId, List<BookingDecisionDto> decisions);
+
     BookingDto getBooking(Long userId, Long bookingId);
 
     Collection<BookingDto> getBookingsForUser(Long userId, BookingState state, int from, int size);
 
     Collection<BookingDto> getBookingsForItemOwner(Long userId, BookingState bookingState, int from, int size);
 
-    Map<Long, List<Booking>> getItemLastBookingMapping(Set<Long> itemIds);
+    Collection<BookingDto> getBookingsForUser(Long userId, BookingState state, PageCursor cursor, int size);
+
+    Collection<BookingDto> getBookingsForItemOwner(Long userId, BookingState state, PageCursor cursor, int size);
+
+    /**
+     * Passes every booking of the owner's items to {@code consumer}, newest first, without loading them all
+     * into memory.
+     */
+    void exportBookingsForItemOwner(Long userId, Consumer<BookingDto> consumer);
+
+    BookingStateCountDto countBookingsForUser(Long userId);
 
-    Map<Long, List<Booking>> getItemNextBookingMapping(Set<Long> itemIds);
+    BookingStateCountDto countBookingsForItemOwner(Long userId);
 }
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.service;
+
+import java.util.Collection;
+
+public interface BookingViewService {
+    void add(Collection<Long> bookingIds);
+
+    void refreshStatus(Collection<Long> bookingIds);
+}
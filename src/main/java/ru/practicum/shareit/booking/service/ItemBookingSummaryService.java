@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+
+import java.util.Map;
+import java.util.Set;
+
+public interface ItemBookingSummaryService {
+    Map<Long, ItemBookingSummary> getItemBookingSummaryMapping(Set<Long> itemIds);
+
+    void refresh(Set<Long> itemIds);
+
+    void refreshExpired();
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.booking.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.event.BookingStatusChangedEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingExpiryService;
+import ru.practicum.shareit.booking.service.BookingViewService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Moves WAITING bookings whose start has passed to EXPIRED: the owner can no longer approve them in time.
+ * <p>
+ * Each run handles up to {@code shareit.booking-expiry.max-batches} batches of
+ * {@code shareit.booking-expiry.batch-size} bookings, every batch in its own short transaction. The batch is read
+ * without locks and moved with one UPDATE conditional on the WAITING status, so a booking approved or rejected
+ * meanwhile is left alone, and an approval that comes after the UPDATE fails on the booking version.
+ * Progress is published as {@code booking.expiry.expired}, {@code booking.expiry.batch}
+ * and {@code booking.expiry.last-run}.
+ */
+@Service
+@Slf4j
+public class BookingExpiryServiceImpl implements BookingExpiryService {
+    private final BookingRepository bookingRepository;
+    private final BookingViewService bookingViewService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Counter expired;
+    private final Timer batchTimer;
+    private final AtomicInteger lastRun = new AtomicInteger();
+
+    public BookingExpiryServiceImpl(BookingRepository bookingRepository, BookingViewService bookingViewService,
+                                    ApplicationEventPublisher eventPublisher,
+                                    TransactionTemplate transactionTemplate,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${shareit.booking-expiry.batch-size:500}") int batchSize,
+                                    @Value("${shareit.booking-expiry.max-batches:100}") int maxBatches) {
+        this.bookingRepository = bookingRepository;
+        this.bookingViewService = bookingViewService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.expired = meterRegistry.counter("booking.expiry.expired");
+        this.batchTimer = meterRegistry.timer("booking.expiry.batch");
+        meterRegistry.gauge("booking.expiry.last-run", lastRun);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-expiry.delay-ms:60000}")
+    public int expireStale() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<Booking> bookings = batchTimer.record(() -> transactionTemplate.execute(status -> expireBatch(now)));
+            total += bookings.size();
+            expired.increment(bookings.size());
+            if (bookings.size() < batchSize) {
+                break;
+            }
+        }
+        lastRun.set(total);
+        if (total > 0) {
+            log.info("Просроченные бронирования переведены в статус EXPIRED, count={}", total);
+        }
+        return total;
+    }
+
+    private List<Booking> expireBatch(LocalDateTime now) {
+        List<Booking> bookings = bookingRepository.findStartedWithStatus(BookingStatus.WAITING, now,
+                PageRequest.of(0, batchSize));
+        if (bookings.isEmpty()) {
+            return bookings;
+        }
+        List<Long> ids = bookings.stream().map(Booking::getId).collect(Collectors.toList());
+        if (bookingRepository.updateStatus(ids, BookingStatus.WAITING, BookingStatus.EXPIRED) < ids.size()) {
+            Set<Long> expiredIds = bookingRepository.findIdsWithStatus(ids, BookingStatus.EXPIRED);
+            bookings = bookings.stream()
+                    .filter(booking -> expiredIds.contains(booking.getId()))
+                    .collect(Collectors.toList());
+            ids = new ArrayList<>(expiredIds);
+        }
+        bookingViewService.refreshStatus(ids);
+        bookings.forEach(booking -> eventPublisher.publishEvent(new BookingStatusChangedEvent(booking.getId(),
+                booking.getItem().getId(), BookingStatus.EXPIRED)));
+        return bookings;
+    }
+}
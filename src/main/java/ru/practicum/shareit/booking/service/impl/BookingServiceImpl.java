@@ -2,18 +2,34 @@ package ru.practicum.shareit.booking.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStateCountDto;
 import ru.practicum.shareit.booking.dto.create.CreateBookingDto;
+import ru.practicum.shareit.booking.dto.create.CreateBookingResultDto;
+import ru.practicum.shareit.booking.event.BookingCreatedEvent;
+import ru.practicum.shareit.booking.event.BookingStatusChangedEvent;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCreationOutcome;
+import ru.practicum.shareit.booking.model.BookingDecisionOutcome;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingViewRepository;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingViewService;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.NoChangeStatusException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.UnavailableForBookingException;
@@ -21,20 +37,35 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utils.OptimisticRetryTemplate;
+import ru.practicum.shareit.utils.PageCursor;
 import ru.practicum.shareit.utils.Pagination;
 
+import javax.persistence.EntityManager;
+import javax.validation.ValidationException;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
+    private final BookingViewRepository bookingViewRepository;
+    private final BookingViewService bookingViewService;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final BookingMapper bookingMapper;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OptimisticRetryTemplate optimisticRetryTemplate;
+    private final EntityManager entityManager;
 
     @Transactional
     public BookingDto createBooking(Long userId, CreateBookingDto createBookingDto) {
@@ -46,14 +77,68 @@ public class BookingServiceImpl implements BookingService {
         if (Objects.equals(item.getOwnerId(), userId)) {
             throw new NotFoundException("Невозможно забронировать свой предмет");
         }
-        Booking booking = bookingMapper.toModel(createBookingDto, user, item);
-        booking.setStatus(BookingStatus.WAITING);
-        Booking savedBooking = bookingRepository.save(booking);
+        Booking booking = newBooking(createBookingDto, user, item);
+        Booking savedBooking = bookingIntervalIndex.withItemLock(item.getId(), () -> {
+            checkApprovedOverlap(booking);
+            Booking saved = bookingRepository.save(booking);
+            bookingViewService.add(List.of(saved.getId()));
+            bookingIntervalIndex.register(saved);
+            return saved;
+        });
+        eventPublisher.publishEvent(new BookingCreatedEvent(savedBooking.getId(), item.getId(),
+                savedBooking.getStart(), savedBooking.getEnd()));
         return bookingMapper.toDto(savedBooking);
     }
 
+    /**
+     * Creates many bookings of one booker. The booker and the items are loaded with one query each and the
+     * bookings are inserted with one JDBC batch. An entry that cannot be booked gets its own error
+     * instead of failing the batch.
+     */
     @Transactional
+    public List<CreateBookingResultDto> createBookings(Long userId, List<CreateBookingDto> createBookingDtos) {
+        User user = getUserById(userId);
+        Map<Long, Item> items = itemRepository.findAllById(createBookingDtos.stream()
+                        .map(CreateBookingDto::getItemId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        CreateBookingResultDto[] results = new CreateBookingResultDto[createBookingDtos.size()];
+        Map<Integer, Booking> candidates = new LinkedHashMap<>();
+        for (int i = 0; i < createBookingDtos.size(); i++) {
+            CreateBookingDto createBookingDto = createBookingDtos.get(i);
+            Item item = items.get(createBookingDto.getItemId());
+            if (item == null) {
+                results[i] = creationFailure(BookingCreationOutcome.NOT_FOUND,
+                        String.format("Вещь по id = %s не найдена!", createBookingDto.getItemId()));
+            } else if (!item.getAvailable()) {
+                results[i] = creationFailure(BookingCreationOutcome.UNAVAILABLE, "Предмет недоступен для бронирования");
+            } else if (Objects.equals(item.getOwnerId(), userId)) {
+                results[i] = creationFailure(BookingCreationOutcome.NOT_FOUND, "Невозможно забронировать свой предмет");
+            } else {
+                candidates.put(i, newBooking(createBookingDto, user, item));
+            }
+        }
+        if (!candidates.isEmpty()) {
+            Set<Long> itemIds = candidates.values().stream().map(b -> b.getItem().getId()).collect(Collectors.toSet());
+            bookingIntervalIndex.withItemLocks(itemIds, () -> {
+                insertWithoutConflicts(candidates, results);
+                return null;
+            });
+        }
+        log.info("Пакетное создание бронирований userId={}, entries={}, created={}", userId, results.length,
+                Arrays.stream(results).filter(r -> r.getOutcome() == BookingCreationOutcome.CREATED).count());
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Two decisions on one booking are serialized by the booking version: the losing transaction is repeated and
+     * then sees the booking already decided. An approval bumps the item version it read, so of two approvals of
+     * one item racing on separate instances only the first commits, and the other is repeated against its result.
+     */
     public BookingDto updateBookingStatus(Long userId, Long bookingId, boolean approved) {
+        return optimisticRetryTemplate.execute(() -> decideBooking(userId, bookingId, approved));
+    }
+
+    private BookingDto decideBooking(Long userId, Long bookingId, boolean approved) {
         getUserById(userId);
         Booking booking = getBookingById(bookingId);
         if (!Objects.equals(userId, booking.getItem().getOwnerId())) {
@@ -62,8 +147,66 @@ public class BookingServiceImpl implements BookingService {
         if (booking.getStatus() != BookingStatus.WAITING) {
             throw new NoChangeStatusException("Статус бронирования изменить уже нельзя");
         }
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        return bookingMapper.toDto(bookingRepository.save(booking));
+        return bookingIntervalIndex.withItemLock(booking.getItem().getId(), () -> {
+            if (approved) {
+                incrementItemVersion(booking.getItem());
+                checkApprovedOverlap(booking);
+            }
+            booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+            Booking saved = saveAndFlush(booking);
+            bookingViewService.refreshStatus(List.of(saved.getId()));
+            bookingIntervalIndex.register(saved);
+            eventPublisher.publishEvent(new BookingStatusChangedEvent(saved.getId(), saved.getItem().getId(),
+                    saved.getStatus()));
+            if (!approved) {
+                return bookingMapper.toDto(saved);
+            }
+            itemBookingSummaryService.refresh(Set.of(saved.getItem().getId()));
+            return bookingMapper.toDto(saved).toBuilder()
+                    .autoRejected(rejectWaitingOverlaps(saved))
+                    .build();
+        });
+    }
+
+    /**
+     * Applies the owner's decisions on many bookings at once. Ownership and status of the whole set are checked
+     * with one query, rejections and approvals are each written with one UPDATE. A booking that cannot be
+     * decided gets its own result instead of failing the batch.
+     */
+    public List<BookingDecisionResultDto> updateBookingStatuses(Long userId, List<BookingDecisionDto> decisions) {
+        return optimisticRetryTemplate.execute(() -> decideBookings(userId, decisions));
+    }
+
+    private List<BookingDecisionResultDto> decideBookings(Long userId, List<BookingDecisionDto> decisions) {
+        getUserById(userId);
+        Map<Long, Boolean> approvedById = new LinkedHashMap<>();
+        for (BookingDecisionDto decision : decisions) {
+            if (approvedById.put(decision.getBookingId(), decision.getApproved()) != null) {
+                throw new ValidationException(String.format("Повторное решение по бронированию id = %s",
+                        decision.getBookingId()));
+            }
+        }
+        Map<Long, BookingDecisionResultDto> results = new HashMap<>();
+        List<Booking> waiting = new ArrayList<>();
+        for (Booking booking : bookingRepository.findBookingsForItemOwnerByIds(userId, approvedById.keySet())) {
+            if (booking.getStatus() == BookingStatus.WAITING) {
+                waiting.add(booking);
+            } else {
+                results.put(booking.getId(), failure(booking.getId(), BookingDecisionOutcome.NOT_WAITING,
+                        booking.getStatus(), "Статус бронирования изменить уже нельзя"));
+            }
+        }
+        if (!waiting.isEmpty()) {
+            Set<Long> itemIds = waiting.stream().map(b -> b.getItem().getId()).collect(Collectors.toSet());
+            results.putAll(bookingIntervalIndex.withItemLocks(itemIds, () -> decide(waiting, approvedById)));
+        }
+        List<BookingDecisionResultDto> response = approvedById.keySet().stream()
+                .map(id -> results.getOrDefault(id, failure(id, BookingDecisionOutcome.NOT_FOUND, null,
+                        String.format("Запись по id = %s не найдена", id))))
+                .collect(Collectors.toList());
+        log.info("Пакетное обновление статусов бронирований userId={}, decisions={}, updated={}", userId,
+                response.size(), response.stream().filter(r -> r.getOutcome() == BookingDecisionOutcome.UPDATED).count());
+        return response;
     }
 
     @Transactional(readOnly = true)
@@ -81,86 +224,395 @@ public class BookingServiceImpl implements BookingService {
     public Collection<BookingDto> getBookingsForUser(Long userId, BookingState state, int from, int size) {
         getUserById(userId);
         Pageable page = Pagination.getPage(from, size, Sort.by("start").descending());
-        List<Booking> result;
+        List<BookingDto> result;
         switch (state) {
             case ALL:
-                result = bookingRepository.findBookingsForUserAll(userId, page);
+                result = bookingViewRepository.findBookingsForUserAll(userId, page);
                 break;
             case CURRENT:
-                result = bookingRepository.findBookingsForUserCurrent(userId, LocalDateTime.now(), page);
+                result = bookingViewRepository.findBookingsForUserCurrent(userId, LocalDateTime.now(), page);
                 break;
             case PAST:
-                result = bookingRepository.findBookingsForUserPast(userId, LocalDateTime.now(), page);
+                result = bookingViewRepository.findBookingsForUserPast(userId, LocalDateTime.now(), page);
                 break;
             case FUTURE:
-                result = bookingRepository.findBookingsForUserFuture(userId, LocalDateTime.now(), page);
+                result = bookingViewRepository.findBookingsForUserFuture(userId, LocalDateTime.now(), page);
                 break;
             case WAITING:
-                result = bookingRepository.findBookingsForUserByStatus(userId, BookingStatus.WAITING, page);
+                result = bookingViewRepository.findBookingsForUserByStatus(userId, BookingStatus.WAITING, page);
                 break;
             case REJECTED:
-                result = bookingRepository.findBookingsForUserByStatus(userId, BookingStatus.REJECTED, page);
+                result = bookingViewRepository.findBookingsForUserByStatus(userId, BookingStatus.REJECTED, page);
                 break;
             default:
                 log.warn("Unknown state: {}", state);
                 return List.of();
         }
-        return bookingMapper.toDto(result);
+        return result;
     }
 
     @Transactional(readOnly = true)
     public Collection<BookingDto> getBookingsForItemOwner(Long userId, BookingState state, int from, int size) {
         getUserById(userId);
         Pageable page = Pagination.getPage(from, size, Sort.by("start").descending());
-        List<Booking> result;
+        List<BookingDto> result;
         switch (state) {
             case ALL:
-                result = bookingRepository.findBookingsForItemOwnerAll(userId, page);
+                result = bookingViewRepository.findBookingsForItemOwnerAll(userId, page);
                 break;
             case CURRENT:
-                result = bookingRepository.findBookingsForItemOwnerCurrent(userId, LocalDateTime.now(), page);
+                result = bookingViewRepository.findBookingsForItemOwnerCurrent(userId, LocalDateTime.now(), page);
                 break;
             case PAST:
-                result = bookingRepository.findBookingsForItemOwnerPast(userId, LocalDateTime.now(), page);
+                result = bookingViewRepository.findBookingsForItemOwnerPast(userId, LocalDateTime.now(), page);
                 break;
             case FUTURE:
-                result = bookingRepository.findBookingsForItemOwnerFuture(userId, LocalDateTime.now(), page);
+                result = bookingViewRepository.findBookingsForItemOwnerFuture(userId, LocalDateTime.now(), page);
                 break;
             case WAITING:
-                result = bookingRepository.findBookingsForItemOwnerStatus(userId, BookingStatus.WAITING, page);
+                result = bookingViewRepository.findBookingsForItemOwnerStatus(userId, BookingStatus.WAITING, page);
                 break;
             case REJECTED:
-                result = bookingRepository.findBookingsForItemOwnerStatus(userId, BookingStatus.REJECTED, page);
+                result = bookingViewRepository.findBookingsForItemOwnerStatus(userId, BookingStatus.REJECTED, page);
                 break;
             default:
                 log.warn("Unknown state: {}", state);
                 return List.of();
         }
-        return bookingMapper.toDto(result);
+        return result;
     }
 
-    @Override
-    public Map<Long, List<Booking>> getItemLastBookingMapping(Set<Long> itemIds) {
-        LocalDateTime now = LocalDateTime.now();
-        Map<Long, List<Booking>> lastBookingMapping;
-        lastBookingMapping = bookingRepository
-                .findLastBookingWithStatus(itemIds, now, BookingStatus.APPROVED.toString())
+    @Transactional(readOnly = true)
+    public Collection<BookingDto> getBookingsForUser(Long userId, BookingState state, PageCursor cursor, int size) {
+        if (cursor == null) {
+            return getBookingsForUser(userId, state, 0, size);
+        }
+        getUserById(userId);
+        Pageable page = Pagination.getLimit(size);
+        LocalDateTime start = cursor.getPosition();
+        Long id = cursor.getId();
+        List<BookingDto> result;
+        switch (state) {
+            case ALL:
+                result = bookingViewRepository.findBookingsForUserAllAfter(userId, start, id, page);
+                break;
+            case CURRENT:
+                result = bookingViewRepository.findBookingsForUserCurrentAfter(userId, LocalDateTime.now(), start, id, page);
+                break;
+            case PAST:
+                result = bookingViewRepository.findBookingsForUserPastAfter(userId, LocalDateTime.now(), start, id, page);
+                break;
+            case FUTURE:
+                result = bookingViewRepository.findBookingsForUserFutureAfter(userId, LocalDateTime.now(), start, id, page);
+                break;
+            case WAITING:
+                result = bookingViewRepository.findBookingsForUserByStatusAfter(userId, BookingStatus.WAITING, start, id, page);
+                break;
+            case REJECTED:
+                result = bookingViewRepository.findBookingsForUserByStatusAfter(userId, BookingStatus.REJECTED, start, id, page);
+                break;
+            default:
+                log.warn("Unknown state: {}", state);
+                return List.of();
+        }
+        return result;
+    }
+
+    @Transactional(readOnly = true)
+    public Collection<BookingDto> getBookingsForItemOwner(Long userId, BookingState state, PageCursor cursor, int size) {
+        if (cursor == null) {
+            return getBookingsForItemOwner(userId, state, 0, size);
+        }
+        getUserById(userId);
+        Pageable page = Pagination.getLimit(size);
+        LocalDateTime start = cursor.getPosition();
+        Long id = cursor.getId();
+        List<BookingDto> result;
+        switch (state) {
+            case ALL:
+                result = bookingViewRepository.findBookingsForItemOwnerAllAfter(userId, start, id, page);
+                break;
+            case CURRENT:
+                result = bookingViewRepository.findBookingsForItemOwnerCurrentAfter(userId, LocalDateTime.now(), start, id, page);
+                break;
+            case PAST:
+                result = bookingViewRepository.findBookingsForItemOwnerPastAfter(userId, LocalDateTime.now(), start, id, page);
+                break;
+            case FUTURE:
+                result = bookingViewRepository.findBookingsForItemOwnerFutureAfter(userId, LocalDateTime.now(), start, id, page);
+                break;
+            case WAITING:
+                result = bookingViewRepository.findBookingsForItemOwnerStatusAfter(userId, BookingStatus.WAITING, start, id, page);
+                break;
+            case REJECTED:
+                result = bookingViewRepository.findBookingsForItemOwnerStatusAfter(userId, BookingStatus.REJECTED, start, id, page);
+                break;
+            default:
+                log.warn("Unknown state: {}", state);
+                return List.of();
+        }
+        return result;
+    }
+
+    /**
+     * Streams the bookings from a database cursor. The persistence context is cleared after every fetched
+     * chunk of rows, so memory use does not grow with the history.
+     */
+    @Transactional(readOnly = true)
+    public void exportBookingsForItemOwner(Long userId, Consumer<BookingDto> consumer) {
+        getUserById(userId);
+        int exported = 0;
+        try (Stream<Booking> bookings = bookingRepository.streamBookingsForItemOwner(userId)) {
+            for (Iterator<Booking> iterator = bookings.iterator(); iterator.hasNext(); ) {
+                consumer.accept(bookingMapper.toDto(iterator.next()));
+                if (++exported % BookingRepository.EXPORT_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        log.info("Выгружены бронирования владельца userId={}, count={}", userId, exported);
+    }
+
+    @Transactional(readOnly = true)
+    public BookingStateCountDto countBookingsForUser(Long userId) {
+        getUserById(userId);
+        return bookingViewRepository.countBookingsForUserByState(userId, LocalDateTime.now(), BookingStatus.WAITING,
+                BookingStatus.REJECTED);
+    }
+
+    @Transactional(readOnly = true)
+    public BookingStateCountDto countBookingsForItemOwner(Long userId) {
+        getUserById(userId);
+        return bookingViewRepository.countBookingsForItemOwnerByState(userId, LocalDateTime.now(), BookingStatus.WAITING,
+                BookingStatus.REJECTED);
+    }
+
+    private void checkApprovedOverlap(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        if (bookingIntervalIndex.hasApprovedOverlap(itemId, booking.getStart(), booking.getEnd(), booking.getId()) ||
+                bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(itemId,
+                        BookingStatus.APPROVED, booking.getEnd(), booking.getStart(),
+                        Objects.requireNonNullElse(booking.getId(), 0L))) {
+            throw new BookingConflictException("Предмет уже забронирован на это время");
+        }
+    }
+
+    /**
+     * Decides WAITING bookings under the locks of their items. The bookings are locked and re-checked first,
+     * since they may have been decided or expired after the unlocked read.
+     */
+    private Map<Long, BookingDecisionResultDto> decide(List<Booking> candidates, Map<Long, Boolean> approvedById) {
+        Map<Long, BookingDecisionResultDto> results = new HashMap<>();
+        Set<Long> lockedIds = bookingRepository.findWithStatusForUpdate(
+                        candidates.stream().map(Booking::getId).collect(Collectors.toList()), BookingStatus.WAITING)
+                .stream().map(Booking::getId).collect(Collectors.toSet());
+        List<Booking> toReject = new ArrayList<>();
+        List<Booking> toApprove = new ArrayList<>();
+        for (Booking booking : candidates) {
+            if (!lockedIds.contains(booking.getId())) {
+                results.put(booking.getId(), failure(booking.getId(), BookingDecisionOutcome.NOT_WAITING, null,
+                        "Статус бронирования изменить уже нельзя"));
+            } else if (approvedById.get(booking.getId())) {
+                toApprove.add(booking);
+            } else {
+                toReject.add(booking);
+            }
+        }
+        List<Booking> approvable = selectApprovable(toApprove, results);
+        List<Long> unsettledIds = new ArrayList<>(results.keySet());
+        applyStatus(toReject, BookingStatus.REJECTED, results);
+        applyStatus(approvable, BookingStatus.APPROVED, results);
+        if (!approvable.isEmpty()) {
+            itemBookingSummaryService.refresh(approvable.stream().map(b -> b.getItem().getId())
+                    .collect(Collectors.toSet()));
+            for (Booking booking : approvable) {
+                results.computeIfPresent(booking.getId(), (id, result) -> result.toBuilder()
+                        .autoRejected(rejectWaitingOverlaps(booking))
+                        .build());
+            }
+        }
+        // conflicting bookings may have been rejected by an approval of this batch
+        for (Booking booking : bookingRepository.findAllById(unsettledIds)) {
+            results.computeIfPresent(booking.getId(), (id, result) -> result.toBuilder()
+                    .status(booking.getStatus())
+                    .build());
+        }
+        return results;
+    }
+
+    /**
+     * Picks the approvals that overlap neither an APPROVED booking nor an earlier approval of the batch,
+     * bumping the versions of their items like a single approval does. The rest get a conflict result.
+     */
+    private List<Booking> selectApprovable(List<Booking> candidates, Map<Long, BookingDecisionResultDto> results) {
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        candidates.stream()
+                .map(Booking::getItem)
+                .collect(Collectors.toMap(Item::getId, Function.identity(), (first, second) -> first))
+                .values()
+                .forEach(this::incrementItemVersion);
+        Map<Long, List<Booking>> taken = findApprovedOverlapping(candidates);
+        List<Booking> approvable = new ArrayList<>();
+        candidates.stream()
+                .sorted(Comparator.comparing(Booking::getStart).thenComparing(Booking::getId))
+                .forEach(booking -> {
+                    if (overlapsApproved(booking, taken)) {
+                        results.put(booking.getId(), failure(booking.getId(), BookingDecisionOutcome.CONFLICT,
+                                BookingStatus.WAITING, "Предмет уже забронирован на это время"));
+                    } else {
+                        taken.computeIfAbsent(booking.getItem().getId(), id -> new ArrayList<>()).add(booking);
+                        approvable.add(booking);
+                    }
+                });
+        return approvable;
+    }
+
+    /**
+     * Loads the APPROVED bookings of the items of {@code bookings} that may overlap any of them, grouped by item.
+     */
+    private Map<Long, List<Booking>> findApprovedOverlapping(Collection<Booking> bookings) {
+        Set<Long> itemIds = bookings.stream().map(b -> b.getItem().getId()).collect(Collectors.toSet());
+        LocalDateTime from = bookings.stream().map(Booking::getStart).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime to = bookings.stream().map(Booking::getEnd).max(Comparator.naturalOrder()).orElseThrow();
+        return bookingRepository
+                .findAllByItemIdInAndStatusAndStartBeforeAndEndAfter(itemIds, BookingStatus.APPROVED, to, from)
                 .stream().collect(Collectors.groupingBy(b -> b.getItem().getId()));
-        return lastBookingMapping;
     }
 
-    @Override
-    public Map<Long, List<Booking>> getItemNextBookingMapping(Set<Long> itemIds) {
-        LocalDateTime now = LocalDateTime.now();
-        Map<Long, List<Booking>> nextBookingMapping;
-        nextBookingMapping = bookingRepository
-                .findNextBookingWithStatus(itemIds, now, BookingStatus.APPROVED.toString()).stream()
-                .collect(Collectors.groupingBy(b -> b.getItem().getId()));
-        return nextBookingMapping;
+    /**
+     * Set-based counterpart of {@link #checkApprovedOverlap(Booking)} over bookings loaded by
+     * {@link #findApprovedOverlapping(Collection)}.
+     */
+    private boolean overlapsApproved(Booking booking, Map<Long, List<Booking>> approved) {
+        Long itemId = booking.getItem().getId();
+        return bookingIntervalIndex.hasApprovedOverlap(itemId, booking.getStart(), booking.getEnd(), booking.getId()) ||
+                approved.getOrDefault(itemId, List.of()).stream().anyMatch(other ->
+                        other.getStart().isBefore(booking.getEnd()) && other.getEnd().isAfter(booking.getStart()));
+    }
+
+    /**
+     * Moves the bookings to the status with one UPDATE. The UPDATE clears the persistence context,
+     * so the bookings are detached before their status is set and nothing is written twice.
+     */
+    private void applyStatus(List<Booking> bookings, BookingStatus status,
+                             Map<Long, BookingDecisionResultDto> results) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        List<Long> ids = bookings.stream().map(Booking::getId).collect(Collectors.toList());
+        bookingRepository.updateStatus(ids, BookingStatus.WAITING, status);
+        bookingViewService.refreshStatus(ids);
+        for (Booking booking : bookings) {
+            booking.setStatus(status);
+            bookingIntervalIndex.register(booking);
+            eventPublisher.publishEvent(new BookingStatusChangedEvent(booking.getId(), booking.getItem().getId(),
+                    status));
+            results.put(booking.getId(), BookingDecisionResultDto.builder()
+                    .bookingId(booking.getId())
+                    .outcome(BookingDecisionOutcome.UPDATED)
+                    .status(status)
+                    .build());
+        }
+    }
+
+    /**
+     * Inserts the bookings that do not overlap an APPROVED booking, under the locks of their items.
+     */
+    private void insertWithoutConflicts(Map<Integer, Booking> candidates, CreateBookingResultDto[] results) {
+        Map<Long, List<Booking>> approved = findApprovedOverlapping(candidates.values());
+        Map<Integer, Booking> accepted = new LinkedHashMap<>();
+        candidates.forEach((position, booking) -> {
+            if (overlapsApproved(booking, approved)) {
+                results[position] = creationFailure(BookingCreationOutcome.CONFLICT,
+                        "Предмет уже забронирован на это время");
+            } else {
+                accepted.put(position, booking);
+            }
+        });
+        bookingRepository.insertAll(new ArrayList<>(accepted.values()));
+        bookingViewService.add(accepted.values().stream().map(Booking::getId).collect(Collectors.toList()));
+        accepted.forEach((position, booking) -> {
+            bookingIntervalIndex.register(booking);
+            eventPublisher.publishEvent(new BookingCreatedEvent(booking.getId(), booking.getItem().getId(),
+                    booking.getStart(), booking.getEnd()));
+            results[position] = CreateBookingResultDto.builder()
+                    .outcome(BookingCreationOutcome.CREATED)
+                    .booking(bookingMapper.toDto(booking))
+                    .build();
+        });
+    }
+
+    private Booking newBooking(CreateBookingDto createBookingDto, User user, Item item) {
+        Booking booking = bookingMapper.toModel(createBookingDto, user, item);
+        booking.setStatus(BookingStatus.WAITING);
+        booking.setStart(booking.getStart().truncatedTo(ChronoUnit.MICROS));
+        booking.setEnd(booking.getEnd().truncatedTo(ChronoUnit.MICROS));
+        return booking;
+    }
+
+    private CreateBookingResultDto creationFailure(BookingCreationOutcome outcome, String error) {
+        return CreateBookingResultDto.builder()
+                .outcome(outcome)
+                .error(error)
+                .build();
+    }
+
+    private BookingDecisionResultDto failure(Long bookingId, BookingDecisionOutcome outcome, BookingStatus status,
+                                             String error) {
+        return BookingDecisionResultDto.builder()
+                .bookingId(bookingId)
+                .outcome(outcome)
+                .status(status)
+                .error(error)
+                .build();
+    }
+
+    /**
+     * Rejects the WAITING bookings of the item that overlap the approved one with a single UPDATE.
+     * The overlapping bookings are selected and locked in the database, and that one list drives the UPDATE,
+     * the view and the events. Must be called under the item lock, after the approval is flushed.
+     */
+    private int rejectWaitingOverlaps(Booking approved) {
+        Long itemId = approved.getItem().getId();
+        List<Long> overlapping = bookingRepository.findOverlappingWithStatus(itemId, approved.getStart(),
+                        approved.getEnd(), approved.getId(), BookingStatus.WAITING).stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+        if (overlapping.isEmpty()) {
+            return 0;
+        }
+        bookingRepository.updateStatus(overlapping, BookingStatus.WAITING, BookingStatus.REJECTED);
+        bookingViewService.refreshStatus(overlapping);
+        for (Long bookingId : overlapping) {
+            eventPublisher.publishEvent(new BookingStatusChangedEvent(bookingId, itemId, BookingStatus.REJECTED));
+        }
+        log.info("Автоматически отклонены пересекающиеся бронирования itemId={}, count={}", itemId,
+                overlapping.size());
+        return overlapping.size();
+    }
+
+    private Booking saveAndFlush(Booking booking) {
+        try {
+            return bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            throw new BookingConflictException("Предмет уже забронирован на это время");
+        }
+    }
+
+    /**
+     * Bumps the item version from the value read by this transaction. A miss means the item was changed since,
+     * and the version conflict makes {@link OptimisticRetryTemplate} repeat the transaction.
+     */
+    private void incrementItemVersion(Item item) {
+        if (itemRepository.incrementVersion(item.getId(), item.getVersion()) == 0) {
+            throw new ObjectOptimisticLockingFailureException(Item.class, item.getId());
+        }
     }
 
     private Booking getBookingById(Long bookingId) {
-        return bookingRepository.findById(bookingId).orElseThrow(
+        return bookingRepository.findWithItemAndBookerById(bookingId).orElseThrow(
                 () -> new NotFoundException(String.format("Запись по id = %s не найдена", bookingId)));
     }
 
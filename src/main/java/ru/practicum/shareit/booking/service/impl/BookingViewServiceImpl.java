@@ -0,0 +1,60 @@
+package ru.practicum.shareit.booking.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.repository.BookingViewRepository;
+import ru.practicum.shareit.booking.service.BookingViewService;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.event.UserUpdatedEvent;
+
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Keeps booking_view in step with bookings, items and users. Every change is written in the transaction
+ * of the change itself, so a committed booking is always listed with its current status.
+ * Bookings deleted with their item or booker leave the view through the foreign key.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookingViewServiceImpl implements BookingViewService {
+    private final BookingViewRepository bookingViewRepository;
+
+    @Transactional
+    public void add(Collection<Long> bookingIds) {
+        if (!bookingIds.isEmpty()) {
+            bookingViewRepository.insertForBookings(bookingIds);
+        }
+    }
+
+    @Transactional
+    public void refreshStatus(Collection<Long> bookingIds) {
+        if (!bookingIds.isEmpty()) {
+            bookingViewRepository.copyStatus(bookingIds);
+        }
+    }
+
+    @EventListener
+    @Transactional
+    public void onItemSaved(ItemSavedEvent event) {
+        Item previous = event.getPrevious();
+        Item item = event.getItem();
+        if (previous == null || Objects.equals(previous.getName(), item.getName())
+                && Objects.equals(previous.getDescription(), item.getDescription())
+                && Objects.equals(previous.getAvailable(), item.getAvailable())
+                && Objects.equals(previous.getRequestId(), item.getRequestId())) {
+            return;
+        }
+        bookingViewRepository.updateItem(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getRequestId());
+    }
+
+    @EventListener
+    @Transactional
+    public void onUserUpdated(UserUpdatedEvent event) {
+        bookingViewRepository.updateBooker(event.getUserId(), event.getName(), event.getEmail());
+    }
+}
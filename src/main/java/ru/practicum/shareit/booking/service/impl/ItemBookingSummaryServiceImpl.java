@@ -0,0 +1,117 @@
+package ru.practicum.shareit.booking.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.event.BookingTransitionEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains item_booking_summary: the current last and next APPROVED booking of every item.
+ * A row stays valid until the start of its next booking, after which the scheduled sweep rebuilds it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ItemBookingSummaryServiceImpl implements ItemBookingSummaryService {
+    private static final int REFRESH_BATCH_SIZE = 100;
+
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+
+    @Transactional(readOnly = true)
+    public Map<Long, ItemBookingSummary> getItemBookingSummaryMapping(Set<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemBookingSummary> result = new HashMap<>();
+        Set<Long> expiredItemIds = new HashSet<>();
+        for (ItemBookingSummary summary : summaryRepository.findAllByItemIdIn(itemIds)) {
+            if (summary.getValidUntil() != null && !summary.getValidUntil().isAfter(now)) {
+                expiredItemIds.add(summary.getItemId());
+            } else {
+                result.put(summary.getItemId(), summary);
+            }
+        }
+        if (!expiredItemIds.isEmpty()) {
+            compute(expiredItemIds, now).forEach(summary -> result.put(summary.getItemId(), summary));
+        }
+        return result;
+    }
+
+    @Transactional
+    public void refresh(Set<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        summaryRepository.saveAll(compute(itemIds, LocalDateTime.now()));
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.refresh-delay-ms:60000}")
+    @Transactional
+    public void refreshExpired() {
+        List<Long> expiredItemIds = summaryRepository.findExpiredItemIds(LocalDateTime.now(),
+                PageRequest.of(0, REFRESH_BATCH_SIZE));
+        if (expiredItemIds.isEmpty()) {
+            return;
+        }
+        refresh(lock(expiredItemIds));
+        log.debug("Обновлены сводки бронирований для вещей itemIds={}", expiredItemIds);
+    }
+
+    /**
+     * A started booking stops being the next one of its item, so the item's summary is rebuilt right away
+     * instead of waiting for the sweep.
+     */
+    @EventListener(condition = "#event.transition == T(ru.practicum.shareit.booking.timer.BookingTransition).STARTED")
+    @Transactional
+    public void onBookingsStarted(BookingTransitionEvent event) {
+        List<Long> itemIds = summaryRepository.findItemIdsByNextBookingIdIn(event.getBookingIds());
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        refresh(lock(itemIds));
+        log.debug("Обновлены сводки бронирований после начала бронирований itemIds={}", itemIds);
+    }
+
+    /**
+     * The jobs lock the summary rows before reading bookings: a row an approval is rewriting is taken once that
+     * approval commits, so a summary computed here cannot overwrite a newer one. Item rows are left alone:
+     * bumping their versions would make owners' concurrent item updates fail for no reason.
+     */
+    private Set<Long> lock(Collection<Long> itemIds) {
+        return summaryRepository.lockAllByItemIdIn(itemIds).stream()
+                .map(ItemBookingSummary::getItemId)
+                .collect(Collectors.toSet());
+    }
+
+    private List<ItemBookingSummary> compute(Set<Long> itemIds, LocalDateTime now) {
+        String status = BookingStatus.APPROVED.toString();
+        Map<Long, Booking> lastBookings = bookingRepository.findLastBookingWithStatus(itemIds, now, status).stream()
+                .collect(Collectors.toMap(b -> b.getItem().getId(), Function.identity()));
+        Map<Long, Booking> nextBookings = bookingRepository.findNextBookingWithStatus(itemIds, now, status).stream()
+                .collect(Collectors.toMap(b -> b.getItem().getId(), Function.identity()));
+        return itemIds.stream()
+                .map(itemId -> {
+                    Booking nextBooking = nextBookings.get(itemId);
+                    return new ItemBookingSummary(itemId, lastBookings.get(itemId), nextBooking,
+                            nextBooking == null ? null : nextBooking.getStart());
+                })
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.booking.timer;
+
+public enum BookingTransition {
+    STARTED,
+    ENDED
+}
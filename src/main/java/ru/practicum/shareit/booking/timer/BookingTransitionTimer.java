@@ -0,0 +1,140 @@
+package ru.practicum.shareit.booking.timer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingCreatedEvent;
+import ru.practicum.shareit.booking.event.BookingTransitionEvent;
+import ru.practicum.shareit.booking.model.BookingPeriod;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps a timer for the start and the end of every WAITING or APPROVED booking in a {@link HierarchicalTimingWheel}
+ * and publishes a {@link BookingTransitionEvent} per transition kind every {@code shareit.booking-timer.tick-ms}.
+ * Timers are loaded from bookings at startup and added for new bookings once they commit. A booking created
+ * during the startup load may be reported twice, so listeners have to tolerate repeated ids.
+ */
+@Component
+@Slf4j
+public class BookingTransitionTimer {
+    private static final Set<BookingStatus> SCHEDULED_STATUSES = EnumSet.of(BookingStatus.WAITING,
+            BookingStatus.APPROVED);
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private final BookingRepository bookingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long tickMs;
+    private final HierarchicalTimingWheel wheel;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Counter started;
+    private final Counter ended;
+
+    public BookingTransitionTimer(BookingRepository bookingRepository, ApplicationEventPublisher eventPublisher,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${shareit.booking-timer.tick-ms:1000}") long tickMs) {
+        this.bookingRepository = bookingRepository;
+        this.eventPublisher = eventPublisher;
+        this.tickMs = tickMs;
+        this.wheel = new HierarchicalTimingWheel(System.currentTimeMillis() / tickMs);
+        this.started = meterRegistry.counter("booking.timer.transitions", "transition", "started");
+        this.ended = meterRegistry.counter("booking.timer.transitions", "transition", "ended");
+        meterRegistry.gauge("booking.timer.pending", this, BookingTransitionTimer::pending);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        LocalDateTime now = LocalDateTime.now();
+        long lastId = 0;
+        int loaded = 0;
+        List<BookingPeriod> batch;
+        do {
+            batch = bookingRepository.findAllByIdGreaterThanAndStatusInAndEndAfterOrderById(lastId,
+                    SCHEDULED_STATUSES, now, PageRequest.of(0, LOAD_BATCH_SIZE));
+            lock.lock();
+            try {
+                for (BookingPeriod booking : batch) {
+                    schedule(booking.getId(), booking.getStart(), booking.getEnd(), now);
+                }
+            } finally {
+                lock.unlock();
+            }
+            loaded += batch.size();
+            lastId = batch.isEmpty() ? lastId : batch.get(batch.size() - 1).getId();
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        log.info("Таймеры начала и окончания бронирований загружены, bookings={}", loaded);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingCreated(BookingCreatedEvent event) {
+        lock.lock();
+        try {
+            schedule(event.getBookingId(), event.getStart(), event.getEnd(), LocalDateTime.now());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedRateString = "${shareit.booking-timer.tick-ms:1000}")
+    public void tick() {
+        List<Long> startedIds = new ArrayList<>();
+        List<Long> endedIds = new ArrayList<>();
+        lock.lock();
+        try {
+            wheel.advanceTo(System.currentTimeMillis() / tickMs, payload ->
+                    ((payload & 1) == 0 ? startedIds : endedIds).add(payload >>> 1));
+        } finally {
+            lock.unlock();
+        }
+        if (!startedIds.isEmpty()) {
+            started.increment(startedIds.size());
+            eventPublisher.publishEvent(new BookingTransitionEvent(BookingTransition.STARTED, startedIds));
+        }
+        if (!endedIds.isEmpty()) {
+            ended.increment(endedIds.size());
+            eventPublisher.publishEvent(new BookingTransitionEvent(BookingTransition.ENDED, endedIds));
+        }
+    }
+
+    public int pending() {
+        lock.lock();
+        try {
+            return wheel.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void schedule(Long bookingId, LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        if (start.isAfter(now)) {
+            wheel.schedule(tickOf(start), bookingId << 1);
+        }
+        if (end.isAfter(now)) {
+            wheel.schedule(tickOf(end), bookingId << 1 | 1);
+        }
+    }
+
+    /**
+     * The first tick at or after the instant, so that no transition is reported early.
+     */
+    private long tickOf(LocalDateTime time) {
+        long millis = time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return Math.floorDiv(millis + tickMs - 1, tickMs);
+    }
+}
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.booking.timer;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Hierarchical timing wheel of {@code long} payloads with tick resolution: six levels of 64 slots, where
+ * a slot of level {@code n} spans 64<sup>n</sup> ticks. A timer goes to the lowest level whose range covers its
+ * delay and moves one level down each time the wheel reaches its slot, so scheduling and expiry are O(1).
+ * Deadlines beyond the range of the top level are parked there and re-scheduled when they come up.
+ * <p>
+ * Timers live in parallel primitive arrays chained into per-slot lists, about 20 bytes per pending timer,
+ * and freed entries are reused. A timer cannot be cancelled: whoever receives it checks whether it still matters.
+ * <p>
+ * The wheel is not thread-safe: {@link BookingTransitionTimer} guards it with a lock.
+ */
+public class HierarchicalTimingWheel {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 6;
+    private static final long MAX_DELAY = (1L << (SLOT_BITS * LEVELS)) - 1;
+    private static final int NONE = -1;
+
+    private final int[] heads = new int[LEVELS * SLOTS];
+    private long[] deadlines = new long[1024];
+    private long[] payloads = new long[1024];
+    private int[] next = new int[1024];
+    private int allocated;
+    private int free = NONE;
+    private int size;
+    private long currentTick;
+
+    public HierarchicalTimingWheel(long currentTick) {
+        this.currentTick = currentTick;
+        Arrays.fill(heads, NONE);
+    }
+
+    /**
+     * Schedules {@code payload} to expire at {@code deadline}. A deadline that has passed expires on the next tick.
+     */
+    public void schedule(long deadline, long payload) {
+        int timer = allocate();
+        deadlines[timer] = deadline;
+        payloads[timer] = payload;
+        place(timer, 1);
+        size++;
+    }
+
+    /**
+     * Moves the wheel to {@code tick}, handing every payload whose deadline is reached to {@code expired},
+     * in deadline order across ticks.
+     */
+    public void advanceTo(long tick, LongConsumer expired) {
+        while (currentTick < tick) {
+            currentTick++;
+            for (int level = 1; level < LEVELS && (currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0; level++) {
+                cascade(level);
+            }
+            int slot = (int) (currentTick & (SLOTS - 1));
+            int timer = heads[slot];
+            heads[slot] = NONE;
+            while (timer != NONE) {
+                int following = next[timer];
+                if (deadlines[timer] <= currentTick) {
+                    expired.accept(payloads[timer]);
+                    release(timer);
+                    size--;
+                } else {
+                    place(timer, 1);
+                }
+                timer = following;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long currentTick() {
+        return currentTick;
+    }
+
+    private void cascade(int level) {
+        int slot = level * SLOTS + (int) ((currentTick >>> (SLOT_BITS * level)) & (SLOTS - 1));
+        int timer = heads[slot];
+        heads[slot] = NONE;
+        while (timer != NONE) {
+            int following = next[timer];
+            place(timer, 0);
+            timer = following;
+        }
+    }
+
+    /**
+     * Cascading happens before the slot of the current tick is expired, so timers due now may go there.
+     * Anything else is placed at least one tick ahead.
+     */
+    private void place(int timer, long minDelay) {
+        long delay = Math.min(Math.max(deadlines[timer] - currentTick, minDelay), MAX_DELAY);
+        long at = currentTick + delay;
+        int level = 0;
+        while (delay >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        int slot = level * SLOTS + (int) ((at >>> (SLOT_BITS * level)) & (SLOTS - 1));
+        next[timer] = heads[slot];
+        heads[slot] = timer;
+    }
+
+    private int allocate() {
+        if (free != NONE) {
+            int timer = free;
+            free = next[timer];
+            return timer;
+        }
+        if (allocated == deadlines.length) {
+            int capacity = allocated + (allocated >> 1);
+            deadlines = Arrays.copyOf(deadlines, capacity);
+            payloads = Arrays.copyOf(payloads, capacity);
+            next = Arrays.copyOf(next, capacity);
+        }
+        return allocated++;
+    }
+
+    private void release(int timer) {
+        next[timer] = free;
+        free = timer;
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.idempotency.IdempotencyFilter;
+import ru.practicum.shareit.idempotency.IdempotencyStore;
+
+@Configuration
+public class IdempotencyConfig {
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore idempotencyStore,
+                                                                       ObjectMapper objectMapper,
+                                                                       MeterRegistry meterRegistry) {
+        return new FilterRegistrationBean<>(new IdempotencyFilter(idempotencyStore, objectMapper, meterRegistry));
+    }
+}
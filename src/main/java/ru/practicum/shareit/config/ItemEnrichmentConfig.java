@@ -0,0 +1,29 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Bounded pool for the independent lookups that enrich item pages (comments, last/next bookings).
+ * When the queue is full the lookup runs on the calling thread instead of failing the request.
+ */
+@Configuration
+public class ItemEnrichmentConfig {
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor itemEnrichmentExecutor(
+            @Value("${shareit.item-enrichment.pool-size:4}") int poolSize,
+            @Value("${shareit.item-enrichment.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("item-enrichment-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
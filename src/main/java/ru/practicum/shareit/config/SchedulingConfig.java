@@ -0,0 +1,13 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduled jobs run on the pool of {@code spring.task.scheduling.pool.size} threads, one per job, so the booking
+ * timer tick and the listeners it calls synchronously never wait behind the expiry and summary sweeps.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class ServiceTimeoutException extends RuntimeException {
+    public ServiceTimeoutException(String msg) {
+        super(msg);
+    }
+}
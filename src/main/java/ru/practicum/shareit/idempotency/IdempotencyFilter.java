@@ -0,0 +1,195 @@
+package ru.practicum.shareit.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import ru.practicum.shareit.errorHandler.errorResponse.ErrorResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Makes POST requests sent with an {@code Idempotency-Key} header safe to retry. The first request with a key
+ * runs as usual and its response is stored, unless it failed with a server error; a repeated request gets
+ * the stored response with {@code Idempotent-Replayed: true} and never reaches the controllers.
+ * <p>
+ * Keys are scoped by {@code X-Sharer-User-Id}. A repeat that arrives while the first request still runs gets
+ * 409, a key reused for another path or body gets 422. Replays are counted in {@code idempotency.replays}.
+ * <p>
+ * If the response cannot be stored, the client still gets it and the key stays claimed until its lease
+ * ends: releasing it would let a retry run the request a second time.
+ */
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final Counter replays;
+
+    public IdempotencyFilter(IdempotencyStore store, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.replays = meterRegistry.counter("idempotency.replays");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod()) || request.getHeader(KEY_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(KEY_HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, "Заголовок " + KEY_HEADER +
+                    " должен быть непустым и не длиннее " + MAX_KEY_LENGTH + " символов");
+            return;
+        }
+        byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+        String key = Objects.toString(request.getHeader("X-Sharer-User-Id"), "") + ":" + idempotencyKey;
+        String fingerprint = fingerprint(request, body);
+        IdempotentResponse claim = IdempotentResponse.inProgress(fingerprint);
+        Optional<IdempotentResponse> stored = store.claim(key, claim);
+        if (stored.isPresent()) {
+            replay(stored.get(), fingerprint, idempotencyKey, response);
+            return;
+        }
+        ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            chain.doFilter(new BufferedBodyRequest(request, body), cachingResponse);
+            if (!HttpStatus.valueOf(cachingResponse.getStatus()).is5xxServerError()) {
+                completed = true;
+                complete(key, claim, idempotencyKey, new IdempotentResponse(fingerprint, cachingResponse.getStatus(),
+                        cachingResponse.getContentType(), cachingResponse.getContentAsByteArray()));
+            }
+        } finally {
+            if (!completed) {
+                store.release(key, claim);
+            }
+            cachingResponse.copyBodyToResponse();
+        }
+    }
+
+    private void complete(String key, IdempotentResponse claim, String idempotencyKey, IdempotentResponse response) {
+        try {
+            store.complete(key, claim, response);
+        } catch (RuntimeException e) {
+            log.error("Не удалось сохранить ответ для ключа идемпотентности {}", idempotencyKey, e);
+        }
+    }
+
+    private void replay(IdempotentResponse stored, String fingerprint, String idempotencyKey,
+                        HttpServletResponse response) throws IOException {
+        if (!stored.getFingerprint().equals(fingerprint)) {
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY, "Ключ " + KEY_HEADER +
+                    " уже использован для другого запроса");
+            return;
+        }
+        if (!stored.isCompleted()) {
+            writeError(response, HttpStatus.CONFLICT, "Запрос с этим ключом " + KEY_HEADER + " ещё выполняется");
+            return;
+        }
+        log.info("Повтор запроса с ключом идемпотентности {}, возвращается сохранённый ответ", idempotencyKey);
+        replays.increment();
+        response.setStatus(stored.getStatus());
+        if (stored.getContentType() != null) {
+            response.setContentType(stored.getContentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.getBody().length);
+        response.getOutputStream().write(stored.getBody());
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        log.warn(message);
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(message));
+    }
+
+    private static String fingerprint(HttpServletRequest request, byte[] body) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        content.write((request.getRequestURI() + "?" + Objects.toString(request.getQueryString(), "") + "\n")
+                .getBytes(StandardCharsets.UTF_8));
+        content.write(body);
+        return DigestUtils.md5DigestAsHex(content.toByteArray());
+    }
+
+    /**
+     * The request with its body already read, so that it can be read again further down the chain.
+     */
+    private static class BufferedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        BufferedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    // the whole body is already in memory, so it can be reported as read at once
+                    try {
+                        readListener.onDataAvailable();
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws UnsupportedEncodingException {
+            String encoding = Objects.toString(getCharacterEncoding(), StandardCharsets.UTF_8.name());
+            return new BufferedReader(new InputStreamReader(getInputStream(), encoding));
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.idempotency;
+
+import java.util.Optional;
+
+/**
+ * Responses of requests sent with an {@code Idempotency-Key}, each kept for {@code shareit.idempotency.ttl-ms}.
+ * The store is selected with {@code shareit.idempotency.store}: {@code memory} (default) keeps responses on
+ * this node, {@code jdbc} shares them between nodes through the database.
+ */
+public interface IdempotencyStore {
+    /**
+     * Claims the key for a request with the placeholder {@code claim}. Empty if the caller got the key and has
+     * to run the request, otherwise what is stored under the key: a completed response or the placeholder of
+     * a request still running.
+     */
+    Optional<IdempotentResponse> claim(String key, IdempotentResponse claim);
+
+    /**
+     * Stores the response if the key is still held by {@code claim}, i.e. the claim was not taken over by a retry.
+     */
+    void complete(String key, IdempotentResponse claim, IdempotentResponse response);
+
+    /**
+     * Frees the key of a request that failed, so that a retry runs it again. A key no longer held by
+     * {@code claim} is left alone.
+     */
+    void release(String key, IdempotentResponse claim);
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.idempotency;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * The response stored for an idempotency key, or a placeholder while the first request with the key runs.
+ * {@code fingerprint} identifies the request, so that a key reused for a different request is not replayed.
+ * {@code token} tells the claims of one key apart, so that a request whose claim was taken over by a retry
+ * cannot complete or release the retry's claim.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class IdempotentResponse {
+    String fingerprint;
+    Integer status;
+    String contentType;
+    byte[] body;
+    String token;
+
+    public IdempotentResponse(String fingerprint, Integer status, String contentType, byte[] body) {
+        this(fingerprint, status, contentType, body, null);
+    }
+
+    public static IdempotentResponse inProgress(String fingerprint) {
+        return new IdempotentResponse(fingerprint, null, null, null, UUID.randomUUID().toString());
+    }
+
+    public boolean isCompleted() {
+        return status != null;
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Keeps up to {@code shareit.idempotency.max-size} responses on this node. A retry that reaches another node
+ * runs the request again. A claim is held for {@code shareit.idempotency.lock-ms} until its response is stored.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+    private final Cache<String, IdempotentResponse> responses;
+
+    public InMemoryIdempotencyStore(MeterRegistry meterRegistry,
+                                    @Value("${shareit.idempotency.max-size:10000}") long maxSize,
+                                    @Value("${shareit.idempotency.ttl-ms:86400000}") long ttlMs,
+                                    @Value("${shareit.idempotency.lock-ms:30000}") long lockMs) {
+        long ttlNanos = Duration.ofMillis(ttlMs).toNanos();
+        long lockNanos = Duration.ofMillis(lockMs).toNanos();
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, IdempotentResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, IdempotentResponse response, long currentTime) {
+                        return response.isCompleted() ? ttlNanos : lockNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, IdempotentResponse response, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, response, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, IdempotentResponse response, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "idempotency");
+    }
+
+    @Override
+    public Optional<IdempotentResponse> claim(String key, IdempotentResponse claim) {
+        return Optional.ofNullable(responses.asMap().putIfAbsent(key, claim));
+    }
+
+    @Override
+    public void complete(String key, IdempotentResponse claim, IdempotentResponse response) {
+        responses.asMap().replace(key, claim, response);
+    }
+
+    @Override
+    public void release(String key, IdempotentResponse claim) {
+        responses.asMap().remove(key, claim);
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps responses in the {@code idempotency_keys} table, so that a retry is replayed by any node. The primary key
+ * decides which request claims a key; responses older than {@code shareit.idempotency.ttl-ms} are ignored and
+ * deleted in the background. A claim whose request has not completed within {@code shareit.idempotency.lock-ms},
+ * e.g. because its node died, can be taken over by a retry, so the lease has to outlast the slowest request.
+ * Completing and releasing match the claim token, so the request that lost its claim changes nothing.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "shareit.idempotency.store", havingValue = "jdbc")
+public class JdbcIdempotencyStore implements IdempotencyStore {
+    private static final int MAX_CLAIM_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long ttlMs;
+    private final long lockMs;
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate,
+                                @Value("${shareit.idempotency.ttl-ms:86400000}") long ttlMs,
+                                @Value("${shareit.idempotency.lock-ms:30000}") long lockMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttlMs = ttlMs;
+        this.lockMs = lockMs;
+    }
+
+    /**
+     * A key may be released or expire between the failed insert and the read, then the insert is repeated.
+     * An expired response or a claim past its lease is deleted first.
+     */
+    @Override
+    public Optional<IdempotentResponse> claim(String key, IdempotentResponse claim) {
+        for (int attempt = 1; ; attempt++) {
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                jdbcTemplate.update("INSERT INTO idempotency_keys (id_key, fingerprint, claim_token, created) " +
+                        "VALUES (?, ?, ?, ?)", key, claim.getFingerprint(), claim.getToken(), Timestamp.valueOf(now));
+                return Optional.empty();
+            } catch (DuplicateKeyException e) {
+                List<IdempotentResponse> stored = jdbcTemplate.query("SELECT fingerprint, status, content_type, body " +
+                                "FROM idempotency_keys WHERE id_key = ? AND created > ? " +
+                                "AND (status IS NOT NULL OR created > ?)",
+                        (rs, rowNum) -> new IdempotentResponse(rs.getString("fingerprint"),
+                                (Integer) rs.getObject("status"), rs.getString("content_type"), rs.getBytes("body")),
+                        key, Timestamp.valueOf(expiredBefore(now)), Timestamp.valueOf(leaseExpiredBefore(now)));
+                if (!stored.isEmpty()) {
+                    return Optional.of(stored.get(0));
+                }
+                if (attempt == MAX_CLAIM_ATTEMPTS) {
+                    throw e;
+                }
+                jdbcTemplate.update("DELETE FROM idempotency_keys WHERE id_key = ? " +
+                                "AND (created <= ? OR status IS NULL AND created <= ?)", key,
+                        Timestamp.valueOf(expiredBefore(now)), Timestamp.valueOf(leaseExpiredBefore(now)));
+            }
+        }
+    }
+
+    @Override
+    public void complete(String key, IdempotentResponse claim, IdempotentResponse response) {
+        jdbcTemplate.update("UPDATE idempotency_keys SET status = ?, content_type = ?, body = ?, created = ? " +
+                        "WHERE id_key = ? AND claim_token = ?", response.getStatus(), response.getContentType(),
+                response.getBody(), Timestamp.valueOf(LocalDateTime.now()), key, claim.getToken());
+    }
+
+    @Override
+    public void release(String key, IdempotentResponse claim) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE id_key = ? AND claim_token = ?", key,
+                claim.getToken());
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.idempotency.cleanup-delay-ms:600000}")
+    public void deleteExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int deleted = jdbcTemplate.update("DELETE FROM idempotency_keys " +
+                        "WHERE created <= ? OR status IS NULL AND created <= ?",
+                Timestamp.valueOf(expiredBefore(now)), Timestamp.valueOf(leaseExpiredBefore(now)));
+        if (deleted > 0) {
+            log.debug("Удалены устаревшие ключи идемпотентности, count={}", deleted);
+        }
+    }
+
+    private LocalDateTime expiredBefore(LocalDateTime now) {
+        return now.minus(ttlMs, ChronoUnit.MILLIS);
+    }
+
+    private LocalDateTime leaseExpiredBefore(LocalDateTime now) {
+        return now.minus(lockMs, ChronoUnit.MILLIS);
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.item.availability;
+
+import ru.practicum.shareit.booking.model.BookingPeriod;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a period into FREE, WAITING and BOOKED intervals. Bookings come sorted by start, so APPROVED and
+ * WAITING bookings are each merged into disjoint blocks in one pass, and the blocks are then walked together
+ * with two pointers: the whole calendar takes linear time. BOOKED wins where a WAITING booking overlaps
+ * an approved one.
+ */
+public final class AvailabilityCalendar {
+    private AvailabilityCalendar() {
+    }
+
+    public static List<AvailabilityIntervalDto> build(LocalDateTime from, LocalDateTime to,
+                                                      List<? extends BookingPeriod> bookingsByStart) {
+        List<LocalDateTime[]> booked = new ArrayList<>();
+        List<LocalDateTime[]> waiting = new ArrayList<>();
+        for (BookingPeriod booking : bookingsByStart) {
+            if (booking.getStatus() == BookingStatus.APPROVED) {
+                merge(booked, booking, from, to);
+            } else if (booking.getStatus() == BookingStatus.WAITING) {
+                merge(waiting, booking, from, to);
+            }
+        }
+        List<AvailabilityIntervalDto> intervals = new ArrayList<>();
+        LocalDateTime time = from;
+        int b = 0;
+        int w = 0;
+        while (time.isBefore(to)) {
+            while (b < booked.size() && !booked.get(b)[1].isAfter(time)) {
+                b++;
+            }
+            while (w < waiting.size() && !waiting.get(w)[1].isAfter(time)) {
+                w++;
+            }
+            LocalDateTime nextBooked = b < booked.size() ? booked.get(b)[0] : to;
+            LocalDateTime next;
+            AvailabilityStatus status;
+            if (!nextBooked.isAfter(time)) {
+                next = booked.get(b)[1];
+                status = AvailabilityStatus.BOOKED;
+            } else if (w < waiting.size() && !waiting.get(w)[0].isAfter(time)) {
+                next = min(waiting.get(w)[1], nextBooked);
+                status = AvailabilityStatus.WAITING;
+            } else {
+                next = w < waiting.size() ? min(waiting.get(w)[0], nextBooked) : nextBooked;
+                status = AvailabilityStatus.FREE;
+            }
+            append(intervals, time, next, status);
+            time = next;
+        }
+        return intervals;
+    }
+
+    private static void merge(List<LocalDateTime[]> blocks, BookingPeriod booking, LocalDateTime from,
+                              LocalDateTime to) {
+        LocalDateTime start = booking.getStart().isBefore(from) ? from : booking.getStart();
+        LocalDateTime end = min(booking.getEnd(), to);
+        if (!start.isBefore(end)) {
+            return;
+        }
+        LocalDateTime[] last = blocks.isEmpty() ? null : blocks.get(blocks.size() - 1);
+        if (last != null && !start.isAfter(last[1])) {
+            last[1] = last[1].isBefore(end) ? end : last[1];
+        } else {
+            blocks.add(new LocalDateTime[]{start, end});
+        }
+    }
+
+    private static void append(List<AvailabilityIntervalDto> intervals, LocalDateTime start, LocalDateTime end,
+                               AvailabilityStatus status) {
+        int last = intervals.size() - 1;
+        if (last >= 0 && intervals.get(last).getStatus() == status) {
+            intervals.set(last, new AvailabilityIntervalDto(intervals.get(last).getStart(), end, status));
+        } else {
+            intervals.add(new AvailabilityIntervalDto(start, end, status));
+        }
+    }
+
+    private static LocalDateTime min(LocalDateTime first, LocalDateTime second) {
+        return first.isBefore(second) ? first : second;
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item.availability;
+
+public enum AvailabilityStatus {
+    FREE,
+    WAITING,
+    BOOKED
+}
@@ -2,18 +2,24 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.AdvancedItemDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.suggest.ItemNameTrie;
 import ru.practicum.shareit.validation.ValidationGroup;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 
@@ -40,6 +46,15 @@ public class ItemController {
         return ResponseEntity.ok(itemService.getById(itemId, userId));
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<ItemAvailabilityDto> getAvailability(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                               @PathVariable Long itemId,
+                                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Получение занятости вещи по id = {} с {} по {} пользователем по id = {}", itemId, from, to, userId);
+        return ResponseEntity.ok(itemService.getAvailability(itemId, userId, from, to));
+    }
+
     @Validated({ValidationGroup.Update.class})
     @PatchMapping("/{itemId}")
     public ResponseEntity<ItemDto> update(@RequestHeader("X-Sharer-User-Id") Long userId,
@@ -51,10 +66,24 @@ public class ItemController {
 
     @GetMapping("/search")
     public ResponseEntity<List<ItemDto>> searchItem(@RequestParam("text") String text,
+                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
                                                     @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
                                                     @RequestParam(defaultValue = "10") @Positive Integer size) {
-        log.info("Поиск доступных предметов text={}", text);
-        return ResponseEntity.ok(itemService.searchItems(text.toLowerCase(), from, size));
+        if (start == null && end == null) {
+            log.info("Поиск доступных предметов text={}", text);
+            return ResponseEntity.ok(itemService.searchItems(text.toLowerCase(), from, size));
+        }
+        log.info("Поиск свободных предметов text={} с {} по {}", text, start, end);
+        return ResponseEntity.ok(itemService.searchFreeItems(text.toLowerCase(), start, end, from, size));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<String>> suggestNames(@RequestParam("prefix") @NotBlank String prefix,
+                                                     @RequestParam(defaultValue = "10") @Positive
+                                                     @Max(ItemNameTrie.MAX_COMPLETIONS) Integer size) {
+        log.info("Подсказки названий вещей prefix={}", prefix);
+        return ResponseEntity.ok(itemService.suggestNames(prefix, size));
     }
 
     @Validated({ValidationGroup.Create.class})
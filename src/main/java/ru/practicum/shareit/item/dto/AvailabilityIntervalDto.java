@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Value;
+import ru.practicum.shareit.item.availability.AvailabilityStatus;
+
+import java.time.LocalDateTime;
+
+@Value
+public class AvailabilityIntervalDto {
+    LocalDateTime start;
+
+    LocalDateTime end;
+
+    AvailabilityStatus status;
+}
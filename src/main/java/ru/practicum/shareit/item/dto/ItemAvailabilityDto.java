@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Value
+public class ItemAvailabilityDto {
+    Long itemId;
+
+    LocalDateTime from;
+
+    LocalDateTime to;
+
+    /**
+     * Consecutive intervals covering {@code from..to} without gaps, neighbours always differ in status.
+     */
+    List<AvailabilityIntervalDto> intervals;
+}
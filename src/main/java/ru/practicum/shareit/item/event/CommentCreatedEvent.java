@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.Value;
+
+/**
+ * Published when a comment is left on an item.
+ */
+@Value
+public class CommentCreatedEvent {
+    Long itemId;
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.Value;
+import ru.practicum.shareit.item.model.Item;
+
+/**
+ * Published when an item is created or updated. Carries detached copies of the state before the change
+ * ({@code null} for a new item) and of the saved state, so after-commit listeners may keep them.
+ */
+@Value
+public class ItemSavedEvent {
+    Item previous;
+    Item item;
+
+    public static ItemSavedEvent of(Item saved) {
+        return new ItemSavedEvent(null, copy(saved));
+    }
+
+    public static ItemSavedEvent of(Item previous, Item saved) {
+        return new ItemSavedEvent(previous, copy(saved));
+    }
+
+    public static Item copy(Item item) {
+        return new Item(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getOwnerId(), item.getRequestId());
+    }
+}
@@ -15,6 +15,7 @@ import java.util.stream.Collectors;
 
 @Mapper(componentModel = "spring")
 public interface ItemMapper {
+    @Mapping(target = "version", ignore = true)
     Item toItemModel(ItemDto itemDto, Long ownerId);
 
     ItemDto toItemDto(Item item);
@@ -24,6 +25,7 @@ public interface ItemMapper {
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "ownerId", ignore = true)
     @Mapping(target = "requestId", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateModel(@MappingTarget Item item, ItemDto updaterItemDto);
 
     @Mapping(target = "itemId", source = "booking.item.id")
@@ -38,12 +40,18 @@ public interface ItemMapper {
     @Mapping(target = "authorName", source = "comment.author.name")
     CommentDto toCommentDto(Comment comment);
 
+    @Mapping(target = "version", ignore = true)
     Item toItemFromAdvanced(AdvancedItemDto advancedItemDto, Long requestId);
 
     default List<AdvancedItemDto> toExtendInfoDto(List<Item> items, Map<Long, List<Comment>> commentMapping,
                                                         Map<Long, List<Booking>> lastBookingMapping, Map<Long, List<Booking>> nextBookingMapping) {
+        return toExtendInfoDtoFromDto(toListItemDto(items), commentMapping, lastBookingMapping, nextBookingMapping);
+    }
+
+    default List<AdvancedItemDto> toExtendInfoDtoFromDto(List<ItemDto> items, Map<Long, List<Comment>> commentMapping,
+                                                         Map<Long, List<Booking>> lastBookingMapping, Map<Long, List<Booking>> nextBookingMapping) {
         LinkedList<AdvancedItemDto> result = new LinkedList<>();
-        for (Item item : items) {
+        for (ItemDto item : items) {
             AdvancedItemDto.AdvancedItemDtoBuilder itemInfo = AdvancedItemDto.builder();
             itemInfo.id(item.getId());
             itemInfo.name(item.getName());
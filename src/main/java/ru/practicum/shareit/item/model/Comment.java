@@ -16,6 +16,7 @@ import java.time.LocalDateTime;
 @Setter
 @Entity
 @Table(name = "comments", schema = "public")
+@NamedEntityGraph(name = "Comment.author", attributeNodes = @NamedAttributeNode("author"))
 public class Comment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -1,13 +1,11 @@
 package ru.practicum.shareit.item.model;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import javax.persistence.*;
 
-@AllArgsConstructor
 @NoArgsConstructor
 @Getter
 @Setter
@@ -33,4 +31,21 @@ public class Item {
 
     @Column(name = "request_id")
     private Long requestId;
+
+    /**
+     * Bumped by every change of the item and by every approval of its bookings, so that of an owner's update and
+     * an approval racing on one item, or of two approvals, the one committing second is retried.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    public Item(Long id, String name, String description, Boolean available, Long ownerId, Long requestId) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.available = available;
+        this.ownerId = ownerId;
+        this.requestId = requestId;
+    }
 }
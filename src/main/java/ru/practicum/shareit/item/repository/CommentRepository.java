@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.item.model.Comment;
 
@@ -9,5 +10,6 @@ import java.util.Set;
 public interface CommentRepository extends JpaRepository<Comment, Long> {
      Comment findByAuthorIdAndItemId(Long authorId, Long itemId);
 
+     @EntityGraph(value = "Comment.author")
      List<Comment> findAllByItemIdIn(Set<Long> itemIds);
 }
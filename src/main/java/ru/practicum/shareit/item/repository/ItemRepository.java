@@ -2,19 +2,61 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemForRequestDto;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    /**
+     * An APPROVED booking of item {@code i} intersecting [:start, :end), answered by bookings_item_status_start_idx.
+     */
+    String APPROVED_OVERLAP = "SELECT 1 FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED' " +
+            "AND b.date_start < :end AND b.date_end > :start";
 
-    List<Item> findAllByOwnerId(Long id, Pageable page);
+    @Query(value = "SELECT new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, " +
+            "i.requestId) FROM Item i WHERE i.ownerId = :ownerId")
+    List<ItemDto> findAllByOwnerId(Long ownerId, Pageable page);
 
-    List<Item> findAllByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndAvailable(String searchNameBy,
-                                                                                               String searchDescBy,
-                                                                                               Boolean available,
-                                                                                               Pageable page);
+    @Query(value = "SELECT i.* FROM items i WHERE i.available AND i.search_vector @@ to_tsquery('simple', :query) " +
+            "ORDER BY ts_rank(i.search_vector, to_tsquery('simple', :query)) DESC, i.id", nativeQuery = true)
+    List<Item> searchAvailableByTsQuery(String query, Pageable page);
 
-    List<Item> findAllByRequestIdIn(Set<Long> requestIds);
+    @Query(value = "SELECT i.* FROM items i WHERE i.available AND i.search_vector @@ to_tsquery('simple', :query) " +
+            "AND NOT EXISTS (" + APPROVED_OVERLAP + ") " +
+            "ORDER BY ts_rank(i.search_vector, to_tsquery('simple', :query)) DESC, i.id", nativeQuery = true)
+    List<Item> searchFreeByTsQuery(String query, LocalDateTime start, LocalDateTime end, Pageable page);
+
+    @Query(value = "SELECT i.* FROM items i WHERE i.available AND " +
+            "REGEXP_LIKE(LOWER(i.name || ' ' || i.description), :pattern) " +
+            "ORDER BY CASE WHEN REGEXP_LIKE(LOWER(i.name), :pattern) THEN 2 " +
+            "WHEN REGEXP_LIKE(LOWER(i.description), :pattern) THEN 1 ELSE 0 END DESC, i.id", nativeQuery = true)
+    List<Item> searchAvailableByPattern(String pattern, Pageable page);
+
+    @Query(value = "SELECT i.* FROM items i WHERE i.available AND " +
+            "REGEXP_LIKE(LOWER(i.name || ' ' || i.description), :pattern) " +
+            "AND NOT EXISTS (" + APPROVED_OVERLAP + ") " +
+            "ORDER BY CASE WHEN REGEXP_LIKE(LOWER(i.name), :pattern) THEN 2 " +
+            "WHEN REGEXP_LIKE(LOWER(i.description), :pattern) THEN 1 ELSE 0 END DESC, i.id", nativeQuery = true)
+    List<Item> searchFreeByPattern(String pattern, LocalDateTime start, LocalDateTime end, Pageable page);
+
+    List<Item> findAllByIdGreaterThanOrderById(Long id, Pageable page);
+
+    @Query(value = "SELECT new ru.practicum.shareit.item.dto.ItemForRequestDto(i.id, i.name, i.description, " +
+            "i.available, i.requestId) FROM Item i WHERE i.requestId IN :requestIds")
+    List<ItemForRequestDto> findAllByRequestIdIn(Set<Long> requestIds);
+
+    /**
+     * Bumps the version of the item if it still is {@code version}, so that an owner's concurrent update of
+     * the item fails its version check. Returns 0 when the item was changed after {@code version} was read.
+     * The persistence context is cleared, so that no managed copy of the item keeps the old version.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE Item i SET i.version = i.version + 1 WHERE i.id = :itemId AND i.version = :version")
+    int incrementVersion(Long itemId, Long version);
 }
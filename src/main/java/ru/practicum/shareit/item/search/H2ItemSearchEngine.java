@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * H2 counterpart of {@link PostgresItemSearchEngine} with the same matching and ranking rules,
+ * expressed as a word-prefix regular expression. H2 has no text index, so this one scans the items.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnExpression("'${shareit.item-search.engine:sql}' == 'sql' && " +
+        "'${spring.sql.init.platform:postgresql}' == 'h2'")
+public class H2ItemSearchEngine implements ItemSearchEngine {
+    private static final String WORD_START = "(^|[^\\p{L}\\p{N}])";
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(List<String> tokens, Pageable page) {
+        return itemRepository.searchAvailableByPattern(pattern(tokens), page);
+    }
+
+    @Override
+    public List<Item> searchFree(List<String> tokens, LocalDateTime start, LocalDateTime end, Pageable page) {
+        return itemRepository.searchFreeByPattern(pattern(tokens), start, end, page);
+    }
+
+    private static String pattern(List<String> tokens) {
+        return tokens.stream()
+                .map(token -> "(?=.*" + WORD_START + token + ")")
+                .collect(Collectors.joining("", "(?s)^", ""));
+    }
+}
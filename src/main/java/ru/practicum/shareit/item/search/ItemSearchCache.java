@@ -0,0 +1,133 @@
+package ru.practicum.shareit.item.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Search result pages keyed by the sorted search tokens and {@code from/size}. Bounded by
+ * {@code shareit.item-search.cache.max-size} entries, each kept at most {@code shareit.item-search.cache.ttl-ms}.
+ * <p>
+ * Once an item change commits, every page of each query that the old or the new version of the item
+ * {@link ItemSearchEngine#mayMatch may match} is dropped, other queries stay cached. A page loaded while
+ * an invalidation ran is not kept, since it may have been read before the change.
+ * <p>
+ * Hits, misses and evictions are published as the {@code cache.*} meters with the tag {@code cache=itemSearch},
+ * dropped pages as {@code item.search.cache.invalidations}.
+ */
+@Component
+@Slf4j
+public class ItemSearchCache {
+    private final ItemSearchEngine itemSearchEngine;
+    private final Cache<Key, List<ItemDto>> pages;
+    private final Counter invalidations;
+    private final AtomicLong generation = new AtomicLong();
+
+    public ItemSearchCache(ItemSearchEngine itemSearchEngine, MeterRegistry meterRegistry,
+                           @Value("${shareit.item-search.cache.max-size:10000}") long maxSize,
+                           @Value("${shareit.item-search.cache.ttl-ms:60000}") long ttlMs) {
+        this.itemSearchEngine = itemSearchEngine;
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        this.invalidations = meterRegistry.counter("item.search.cache.invalidations");
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "itemSearch");
+    }
+
+    /**
+     * The cached page, or the one {@code search} returns. Inside a transaction the cache is bypassed:
+     * the search could see changes that are not committed yet.
+     */
+    public List<ItemDto> get(List<String> tokens, int from, int size, Supplier<List<ItemDto>> search) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return search.get();
+        }
+        Key key = Key.of(tokens, from, size);
+        List<ItemDto> page = pages.getIfPresent(key);
+        if (page != null) {
+            return page;
+        }
+        long loadedAt = generation.get();
+        page = List.copyOf(search.get());
+        pages.put(key, page);
+        if (generation.get() != loadedAt) {
+            pages.asMap().remove(key, page);
+        }
+        return page;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemSaved(ItemSavedEvent event) {
+        generation.incrementAndGet();
+        Set<List<String>> affected = new HashSet<>();
+        for (Map.Entry<Key, List<ItemDto>> entry : pages.asMap().entrySet()) {
+            List<String> tokens = entry.getKey().getTokens();
+            if (!affected.contains(tokens) && (mayMatch(tokens, event.getPrevious())
+                    || mayMatch(tokens, event.getItem()) || contains(entry.getValue(), event.getItem().getId()))) {
+                affected.add(tokens);
+            }
+        }
+        if (affected.isEmpty()) {
+            return;
+        }
+        int dropped = 0;
+        for (Iterator<Key> keys = pages.asMap().keySet().iterator(); keys.hasNext(); ) {
+            if (affected.contains(keys.next().getTokens())) {
+                keys.remove();
+                dropped++;
+            }
+        }
+        invalidations.increment(dropped);
+        log.debug("Из кэша поиска удалены страницы запросов {} после изменения вещи id = {}", affected,
+                event.getItem().getId());
+    }
+
+    /**
+     * The owner's items are deleted with the user, and the event does not tell which ones they were.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        generation.incrementAndGet();
+        invalidations.increment(pages.asMap().size());
+        pages.invalidateAll();
+    }
+
+    private boolean mayMatch(List<String> tokens, Item item) {
+        return item != null && itemSearchEngine.mayMatch(tokens, item);
+    }
+
+    private static boolean contains(List<ItemDto> page, Long itemId) {
+        return page.stream().anyMatch(item -> Objects.equals(item.getId(), itemId));
+    }
+
+    @lombok.Value
+    private static class Key {
+        List<String> tokens;
+        int from;
+        int size;
+
+        static Key of(List<String> tokens, int from, int size) {
+            List<String> sorted = new ArrayList<>(tokens);
+            Collections.sort(sorted);
+            return new Key(List.copyOf(sorted), from, size);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Finds available items whose name or description matches every search token, most relevant first:
+ * matches in the name rank above matches in the description.
+ * The engine is selected with {@code shareit.item-search.engine}: {@code sql} (default) or {@code trigram}.
+ */
+public interface ItemSearchEngine {
+    List<Item> search(List<String> tokens, Pageable page);
+
+    /**
+     * Like {@link #search}, restricted to items without an APPROVED booking intersecting [start, end).
+     * The booking check is part of the same query or index lookup, so paging counts only free items.
+     */
+    List<Item> searchFree(List<String> tokens, LocalDateTime start, LocalDateTime end, Pageable page);
+
+    /**
+     * Whether {@link #search} could return the item for these tokens. May answer {@code true} for an item that
+     * is not found, never {@code false} for one that is. By default every token has to occur somewhere in
+     * the name or description, which covers word-prefix matching.
+     */
+    default boolean mayMatch(List<String> tokens, Item item) {
+        if (!item.getAvailable()) {
+            return false;
+        }
+        String text = (item.getName() + " " + item.getDescription()).toLowerCase(Locale.ROOT);
+        return tokens.stream().allMatch(text::contains);
+    }
+}
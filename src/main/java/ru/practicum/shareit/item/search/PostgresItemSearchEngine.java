@@ -0,0 +1,37 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Searches the generated items.search_vector column through its GIN index and ranks with ts_rank.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnExpression("'${shareit.item-search.engine:sql}' == 'sql' && " +
+        "'${spring.sql.init.platform:postgresql}' == 'postgresql'")
+public class PostgresItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(List<String> tokens, Pageable page) {
+        return itemRepository.searchAvailableByTsQuery(query(tokens), page);
+    }
+
+    @Override
+    public List<Item> searchFree(List<String> tokens, LocalDateTime start, LocalDateTime end, Pageable page) {
+        return itemRepository.searchFreeByTsQuery(query(tokens), start, end, page);
+    }
+
+    private static String query(List<String> tokens) {
+        return tokens.stream().map(token -> token + ":*").collect(Collectors.joining(" & "));
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Splits search text into lower-case words the same way for every search engine: any run of
+ * characters other than letters and digits separates words.
+ */
+@UtilityClass
+public class SearchTokens {
+    private static final String SEPARATOR = "[^\\p{L}\\p{N}]+";
+
+    public List<String> of(String text) {
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split(SEPARATOR))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,393 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Trigram inverted index over item names and descriptions.
+ * <p>
+ * Every indexed item version gets a dense int document id, and each trigram maps to the ascending list of
+ * documents that contain it. An update appends a new document and retires the old one. The postings are
+ * compacted once retired documents outnumber live ones.
+ * <p>
+ * Words are padded the way pg_trgm does it ("  word "). A query word of three or more characters
+ * matches any document containing it as a substring, and shorter words match word prefixes. When no
+ * item matches every query word exactly, words are matched fuzzily by the share of their padded trigrams
+ * found in the document.
+ * <p>
+ * The index is not thread-safe: {@link TrigramItemSearchEngine} guards it with a read-write lock.
+ */
+public class TrigramItemIndex {
+    private static final double FUZZY_SIMILARITY = 0.5;
+    private static final int MIN_COMPACTION_SIZE = 1024;
+    private static final int NAME_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final Map<Long, Integer> docByItemId = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private Item[] items = new Item[16];
+    private String[] names = new String[16];
+    private String[] descriptions = new String[16];
+    private int docCount;
+
+    public void put(Item item) {
+        retire(item.getId());
+        if (docCount == items.length) {
+            items = Arrays.copyOf(items, docCount * 2);
+            names = Arrays.copyOf(names, docCount * 2);
+            descriptions = Arrays.copyOf(descriptions, docCount * 2);
+        }
+        int doc = docCount++;
+        items[doc] = item;
+        names[doc] = item.getName().toLowerCase(Locale.ROOT);
+        descriptions[doc] = item.getDescription().toLowerCase(Locale.ROOT);
+        live.set(doc);
+        docByItemId.put(item.getId(), doc);
+        addPostings(doc);
+        compactIfSparse();
+    }
+
+    public void removeByOwner(Long ownerId) {
+        for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+            if (Objects.equals(items[doc].getOwnerId(), ownerId)) {
+                retire(items[doc].getId());
+            }
+        }
+        compactIfSparse();
+    }
+
+    public int size() {
+        return docByItemId.size();
+    }
+
+    /**
+     * Available items matching every token, best score first, then by item id.
+     */
+    public List<Item> search(List<String> tokens, int offset, int limit) {
+        return search(tokens, item -> true, offset, limit);
+    }
+
+    /**
+     * Like {@link #search(List, int, int)}, keeping only the matching items that pass the filter. The filter
+     * runs before ranking and paging, and only for items that already match the tokens.
+     */
+    public List<Item> search(List<String> tokens, Predicate<Item> filter, int offset, int limit) {
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Matches matches = exactMatches(tokens, filter);
+        if (matches.size == 0) {
+            matches = fuzzyMatches(tokens, filter);
+        }
+        return top(matches, offset, limit);
+    }
+
+    /**
+     * Whether {@link #search} could return the item for these tokens, either as an exact or as a fuzzy match.
+     */
+    public static boolean mayMatch(List<String> tokens, Item item) {
+        if (!item.getAvailable()) {
+            return false;
+        }
+        String name = item.getName().toLowerCase(Locale.ROOT);
+        String description = item.getDescription().toLowerCase(Locale.ROOT);
+        if (tokens.stream().allMatch(token -> name.contains(token) || description.contains(token))) {
+            return true;
+        }
+        Set<Long> documentTrigrams = new HashSet<>();
+        for (String word : SearchTokens.of(name + " " + description)) {
+            for (long trigram : paddedTrigrams(word)) {
+                documentTrigrams.add(trigram);
+            }
+        }
+        for (String token : tokens) {
+            long[] trigrams = paddedTrigrams(token);
+            int hits = 0;
+            for (long trigram : trigrams) {
+                hits += documentTrigrams.contains(trigram) ? 1 : 0;
+            }
+            if ((double) hits / trigrams.length < FUZZY_SIMILARITY) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Matches exactMatches(List<String> tokens, Predicate<Item> filter) {
+        int[] candidates = null;
+        for (String token : tokens) {
+            int[] docs = intersect(queryTrigrams(token));
+            candidates = candidates == null ? docs : intersect(candidates, candidates.length, docs, docs.length);
+        }
+        Matches matches = new Matches(candidates.length);
+        for (int doc : candidates) {
+            if (!live.get(doc) || !items[doc].getAvailable()) {
+                continue;
+            }
+            double score = 0;
+            for (String token : tokens) {
+                int tokenScore = (names[doc].contains(token) ? NAME_WEIGHT : 0) +
+                        (descriptions[doc].contains(token) ? DESCRIPTION_WEIGHT : 0);
+                if (tokenScore == 0) {
+                    score = 0;
+                    break;
+                }
+                score += tokenScore;
+            }
+            if (score > 0 && filter.test(items[doc])) {
+                matches.add(doc, score);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Candidates are the documents found in the posting lists of the first word, each later word only
+     * narrows them, so the work is bounded by the postings of the query trigrams rather than the index size.
+     */
+    private Matches fuzzyMatches(List<String> tokens, Predicate<Item> filter) {
+        Matches candidates = null;
+        for (String token : tokens) {
+            long[] trigrams = paddedTrigrams(token);
+            candidates = candidates == null ? fuzzyCandidates(trigrams) : narrow(candidates, trigrams);
+            if (candidates.size == 0) {
+                break;
+            }
+        }
+        Matches matches = new Matches(candidates.size);
+        for (int i = 0; i < candidates.size; i++) {
+            int doc = candidates.docs[i];
+            if (live.get(doc) && items[doc].getAvailable() && filter.test(items[doc])) {
+                matches.add(doc, candidates.scores[i]);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Documents sharing enough trigrams with the word, in ascending order, scored by their similarity.
+     */
+    private Matches fuzzyCandidates(long[] trigrams) {
+        int total = 0;
+        for (long trigram : trigrams) {
+            PostingList list = postings.get(trigram);
+            total += list == null ? 0 : list.size;
+        }
+        int[] docs = new int[total];
+        int next = 0;
+        for (long trigram : trigrams) {
+            PostingList list = postings.get(trigram);
+            if (list != null) {
+                System.arraycopy(list.docs, 0, docs, next, list.size);
+                next += list.size;
+            }
+        }
+        Arrays.sort(docs);
+        Matches candidates = new Matches(16);
+        for (int i = 0; i < total; ) {
+            int run = i;
+            while (run < total && docs[run] == docs[i]) {
+                run++;
+            }
+            double similarity = (double) (run - i) / trigrams.length;
+            if (similarity >= FUZZY_SIMILARITY) {
+                candidates.add(docs[i], similarity);
+            }
+            i = run;
+        }
+        return candidates;
+    }
+
+    /**
+     * Keeps the candidates sharing enough trigrams with the word and multiplies their scores by the similarity.
+     * Both the candidates and the posting lists are ascending, so each list is merged in one pass.
+     */
+    private Matches narrow(Matches candidates, long[] trigrams) {
+        int[] hits = new int[candidates.size];
+        for (long trigram : trigrams) {
+            PostingList list = postings.get(trigram);
+            if (list == null) {
+                continue;
+            }
+            int i = 0;
+            int j = 0;
+            while (i < candidates.size && j < list.size) {
+                if (candidates.docs[i] < list.docs[j]) {
+                    i++;
+                } else if (candidates.docs[i] > list.docs[j]) {
+                    j++;
+                } else {
+                    hits[i++]++;
+                    j++;
+                }
+            }
+        }
+        Matches narrowed = new Matches(candidates.size);
+        for (int i = 0; i < candidates.size; i++) {
+            double similarity = (double) hits[i] / trigrams.length;
+            if (similarity >= FUZZY_SIMILARITY) {
+                narrowed.add(candidates.docs[i], candidates.scores[i] * similarity);
+            }
+        }
+        return narrowed;
+    }
+
+    private List<Item> top(Matches matches, int offset, int limit) {
+        int[] best = new int[Math.min(offset + limit, matches.size)];
+        int count = 0;
+        for (int i = 0; i < matches.size; i++) {
+            if (count == best.length && !ranksHigher(matches, i, best[count - 1])) {
+                continue;
+            }
+            int position = count < best.length ? count++ : count - 1;
+            while (position > 0 && ranksHigher(matches, i, best[position - 1])) {
+                best[position] = best[position - 1];
+                position--;
+            }
+            best[position] = i;
+        }
+        List<Item> result = new ArrayList<>();
+        for (int i = offset; i < count; i++) {
+            result.add(items[matches.docs[best[i]]]);
+        }
+        return result;
+    }
+
+    private boolean ranksHigher(Matches matches, int left, int right) {
+        int byScore = Double.compare(matches.scores[left], matches.scores[right]);
+        if (byScore != 0) {
+            return byScore > 0;
+        }
+        return items[matches.docs[left]].getId() < items[matches.docs[right]].getId();
+    }
+
+    private void retire(Long itemId) {
+        Integer doc = docByItemId.remove(itemId);
+        if (doc != null) {
+            live.clear(doc);
+        }
+    }
+
+    private void addPostings(int doc) {
+        for (String word : SearchTokens.of(names[doc] + " " + descriptions[doc])) {
+            for (long trigram : paddedTrigrams(word)) {
+                postings.computeIfAbsent(trigram, key -> new PostingList()).add(doc);
+            }
+        }
+    }
+
+    private void compactIfSparse() {
+        int liveCount = docByItemId.size();
+        if (docCount < MIN_COMPACTION_SIZE || docCount - liveCount <= liveCount) {
+            return;
+        }
+        Item[] liveItems = new Item[liveCount];
+        int next = 0;
+        for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+            liveItems[next++] = items[doc];
+        }
+        postings.clear();
+        docByItemId.clear();
+        live.clear();
+        items = new Item[Math.max(16, liveCount * 2)];
+        names = new String[items.length];
+        descriptions = new String[items.length];
+        docCount = 0;
+        for (Item item : liveItems) {
+            put(item);
+        }
+    }
+
+    private int[] intersect(long[] trigrams) {
+        PostingList[] lists = new PostingList[trigrams.length];
+        for (int i = 0; i < trigrams.length; i++) {
+            lists[i] = postings.get(trigrams[i]);
+            if (lists[i] == null) {
+                return new int[0];
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+        int[] result = Arrays.copyOf(lists[0].docs, lists[0].size);
+        for (int i = 1; i < lists.length && result.length > 0; i++) {
+            result = intersect(result, result.length, lists[i].docs, lists[i].size);
+        }
+        return result;
+    }
+
+    private static int[] intersect(int[] left, int leftSize, int[] right, int rightSize) {
+        int[] result = new int[Math.min(leftSize, rightSize)];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < leftSize && j < rightSize) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static long[] queryTrigrams(String token) {
+        if (token.length() >= 3) {
+            return trigrams(token);
+        }
+        long[] padded = paddedTrigrams(token);
+        return Arrays.copyOf(padded, token.length());
+    }
+
+    private static long[] paddedTrigrams(String word) {
+        return trigrams("  " + word + " ");
+    }
+
+    private static long[] trigrams(String text) {
+        long[] result = new long[text.length() - 2];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (long) text.charAt(i) << 32 | (long) text.charAt(i + 1) << 16 | text.charAt(i + 2);
+        }
+        return result;
+    }
+
+    private static final class PostingList {
+        private int[] docs = new int[4];
+        private int size;
+
+        private void add(int doc) {
+            if (size > 0 && docs[size - 1] == doc) {
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+    }
+
+    private static final class Matches {
+        private int[] docs;
+        private double[] scores;
+        private int size;
+
+        private Matches(int capacity) {
+            docs = new int[Math.max(capacity, 1)];
+            scores = new double[docs.length];
+        }
+
+        private void add(int doc, double score) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            docs[size] = doc;
+            scores[size++] = score;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Serves item search from an in-process {@link TrigramItemIndex} without querying the database.
+ * The index is loaded at startup and follows item changes once their transaction commits.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "shareit.item-search.engine", havingValue = "trigram")
+public class TrigramItemSearchEngine implements ItemSearchEngine {
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private final ItemRepository itemRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private TrigramItemIndex index = new TrigramItemIndex();
+    private List<Consumer<TrigramItemIndex>> pendingChanges;
+
+    /**
+     * Loads a fresh index and swaps it in. Runs while the context starts, before the web server accepts
+     * requests; a later reload keeps serving the current index meanwhile. Changes that arrive during the load
+     * go to the current index and are replayed on the loaded one before the swap, so a batch row read before
+     * a change cannot outlive it.
+     */
+    @PostConstruct
+    public void warmUp() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        TrigramItemIndex loaded = new TrigramItemIndex();
+        try {
+            long lastId = 0;
+            List<Item> batch;
+            do {
+                batch = itemRepository.findAllByIdGreaterThanOrderById(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                batch.forEach(loaded::put);
+                lastId = batch.isEmpty() ? lastId : batch.get(batch.size() - 1).getId();
+            } while (batch.size() == LOAD_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            write(current -> pendingChanges = null);
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            pendingChanges.forEach(change -> change.accept(loaded));
+            pendingChanges = null;
+            index = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Триграммный индекс вещей загружен, items={}", loaded.size());
+    }
+
+    @Override
+    public List<Item> search(List<String> tokens, Pageable page) {
+        lock.readLock().lock();
+        try {
+            return index.search(tokens, (int) page.getOffset(), page.getPageSize());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Intersects the trigram matches with the {@link BookingIntervalIndex}: only matching items are checked,
+     * each under its own item lock. The booking index keeps bookings that have not ended yet, which is
+     * enough for windows that do not start in the past.
+     */
+    @Override
+    public List<Item> searchFree(List<String> tokens, LocalDateTime start, LocalDateTime end, Pageable page) {
+        Predicate<Item> free = item -> !bookingIntervalIndex.withItemLock(item.getId(),
+                () -> bookingIntervalIndex.hasApprovedOverlap(item.getId(), start, end, null));
+        lock.readLock().lock();
+        try {
+            return index.search(tokens, free, (int) page.getOffset(), page.getPageSize());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean mayMatch(List<String> tokens, Item item) {
+        return TrigramItemIndex.mayMatch(tokens, item);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemSaved(ItemSavedEvent event) {
+        write(current -> current.put(event.getItem()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        write(current -> current.removeByOwner(event.getUserId()));
+    }
+
+    private void write(Consumer<TrigramItemIndex> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(index);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -2,9 +2,11 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.AdvancedItemDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -19,8 +21,14 @@ public interface ItemService {
 
     ItemDto update(ItemDto itemDto, Long itemId, Long userId);
 
+    ItemAvailabilityDto getAvailability(Long itemId, Long userId, LocalDateTime from, LocalDateTime to);
+
     List<ItemDto> searchItems(String text, int from, int size);
 
+    List<ItemDto> searchFreeItems(String text, LocalDateTime start, LocalDateTime end, int from, int size);
+
+    List<String> suggestNames(String prefix, int size);
+
     CommentDto createComment(CommentDto commentDto, Long itemId, Long userId);
 
     Map<Long, List<Comment>> getItemCommentMapping(Set<Long> itemIds);
@@ -2,32 +2,60 @@ package ru.practicum.shareit.item.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPeriod;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 import ru.practicum.shareit.booking.repository.BookingRepository;
-import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
 import ru.practicum.shareit.exception.AccessException;
 import ru.practicum.shareit.exception.CreatingCommentException;
+import ru.practicum.shareit.exception.InvalidPeriodException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ServiceTimeoutException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.availability.AvailabilityCalendar;
 import ru.practicum.shareit.item.dto.AdvancedItemDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.CommentCreatedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.SearchTokens;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.suggest.ItemNameSuggester;
+import ru.practicum.shareit.item.view.ItemView;
+import ru.practicum.shareit.item.view.ItemViewCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utils.OptimisticRetryTemplate;
 import ru.practicum.shareit.utils.Pagination;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -39,64 +67,151 @@ public class ItemServiceImpl implements ItemService {
     private final ItemMapper itemMapper;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
-    private final BookingService bookingService;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final ThreadPoolTaskExecutor itemEnrichmentExecutor;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemSearchCache itemSearchCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ItemNameSuggester itemNameSuggester;
+    private final ItemViewCache itemViewCache;
+    private final OptimisticRetryTemplate optimisticRetryTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${shareit.item-enrichment.timeout-ms:5000}")
+    private long enrichmentTimeoutMs;
+
+    @Value("${shareit.item-availability.max-days:366}")
+    private long availabilityMaxDays;
 
     @Transactional
     public ItemDto add(ItemDto itemDto, Long userId) {
         getUserById(userId);
         Item item = itemMapper.toItemModel(itemDto, userId);
         Item saved = itemRepository.save(item);
+        eventPublisher.publishEvent(ItemSavedEvent.of(saved));
         return itemMapper.toItemDto(saved);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Comments and last/next bookings do not depend on each other, so they are loaded in parallel on
+     * the item enrichment pool. The method joins the caller's transaction only if there is one: then
+     * the lookups stay on the calling thread, otherwise they could not see its uncommitted changes.
+     * A parallel lookup runs in a transaction with the same timeout as the wait for it, so that its queries
+     * are cancelled by the database rather than left running once the request gave up.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Collection<AdvancedItemDto> getAllByOwner(Long userId, int from, int size) {
         getUserById(userId);
         Pageable page = Pagination.getPage(from, size);
-        List<Item> listItems = itemRepository.findAllByOwnerId(userId, page);
-        Set<Long> itemIds = listItems.stream().map(Item::getId).collect(Collectors.toSet());
-        Map<Long, List<Comment>> commentsMapping = getItemCommentMapping(itemIds);
-        Map<Long, List<Booking>> lastBookingMapping = bookingService.getItemLastBookingMapping(itemIds);
-        Map<Long, List<Booking>> nextBookingMapping = bookingService.getItemNextBookingMapping(itemIds);
-        return itemMapper.toExtendInfoDto(listItems, commentsMapping, lastBookingMapping, nextBookingMapping);
+        List<ItemDto> listItems = itemRepository.findAllByOwnerId(userId, page);
+        Set<Long> itemIds = listItems.stream().map(ItemDto::getId).collect(Collectors.toSet());
+        CompletableFuture<Map<Long, List<Comment>>> comments = lookup(() -> getItemCommentMapping(itemIds));
+        CompletableFuture<Map<Long, ItemBookingSummary>> summaries = lookup(() ->
+                itemBookingSummaryService.getItemBookingSummaryMapping(itemIds));
+        Map<Long, List<Comment>> commentsMapping = await(comments, summaries);
+        Map<Long, ItemBookingSummary> summaryMapping = await(summaries, comments);
+        return itemMapper.toExtendInfoDtoFromDto(listItems, commentsMapping,
+                toBookingMapping(summaryMapping, ItemBookingSummary::getLastBooking),
+                toBookingMapping(summaryMapping, ItemBookingSummary::getNextBooking));
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Served from the {@link ItemViewCache} when possible. The owner page needs no query at all, the shared page
+     * only checks that the user exists. Outside a caller's transaction no transaction is opened for a hit.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public AdvancedItemDto getById(Long id, Long userId) {
-        getUserById(userId);
-        Item item = getItemById(id);
-        Map<Long, List<Comment>> commentsMapping = getItemCommentMapping(Set.of(item.getId()));
-        Map<Long, List<Booking>> lastBookingMapping = null;
-        Map<Long, List<Booking>> nextBookingMapping = null;
-        if (Objects.equals(userId, item.getOwnerId())) {
-            lastBookingMapping = bookingService.getItemLastBookingMapping(Set.of(item.getId()));
-            nextBookingMapping = bookingService.getItemNextBookingMapping(Set.of(item.getId()));
+        Optional<ItemView> cached = itemViewCache.find(id, userId);
+        if (cached.isPresent()) {
+            if (!cached.get().isOwnerView()) {
+                getUserById(userId);
+            }
+            return cached.get().getItem();
         }
-        return itemMapper.toExtendInfoDto(List.of(item), commentsMapping, lastBookingMapping, nextBookingMapping)
-                .stream().findFirst().orElseThrow(() -> new RuntimeException("Ошибка маппинга ItemWithExtendInfoDto"));
+        return itemViewCache.load(id, () -> loadView(id, userId)).getItem();
     }
 
-    @Transactional
     public ItemDto update(ItemDto itemDto, Long itemId, Long userId) {
+        return optimisticRetryTemplate.execute(() -> updateItem(itemDto, itemId, userId));
+    }
+
+    private ItemDto updateItem(ItemDto itemDto, Long itemId, Long userId) {
         getUserById(userId);
         Item savedItem = getItemById(itemId);
         if (!Objects.equals(userId, savedItem.getOwnerId())) {
             throw new AccessException(String.format("Ошибка доступа, пользователь с id = %s, не может редактировать" +
                    " вещь по id = %s", userId, savedItem.getId()));
         }
+        Item previous = ItemSavedEvent.copy(savedItem);
         itemMapper.updateModel(savedItem, itemDto);
-        return itemMapper.toItemDto(itemRepository.save(savedItem));
+        Item saved = itemRepository.save(savedItem);
+        eventPublisher.publishEvent(ItemSavedEvent.of(previous, saved));
+        return itemMapper.toItemDto(saved);
     }
 
+    /**
+     * Loads the bookings overlapping the period with one range query and merges them into a calendar.
+     * The owner also sees WAITING bookings; the period is limited to {@code shareit.item-availability.max-days}
+     * so that the work per request stays bounded.
+     */
     @Transactional(readOnly = true)
+    public ItemAvailabilityDto getAvailability(Long itemId, Long userId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new InvalidPeriodException("Начало периода должно быть раньше его конца");
+        }
+        if (from.plusDays(availabilityMaxDays).isBefore(to)) {
+            throw new InvalidPeriodException(
+                    String.format("Период не может быть длиннее %s дней", availabilityMaxDays));
+        }
+        getUserById(userId);
+        Item item = getItemById(itemId);
+        Set<BookingStatus> statuses = Objects.equals(userId, item.getOwnerId())
+                ? EnumSet.of(BookingStatus.APPROVED, BookingStatus.WAITING)
+                : EnumSet.of(BookingStatus.APPROVED);
+        List<BookingPeriod> bookings = bookingRepository
+                .findAllByItemIdAndStatusInAndStartBeforeAndEndAfterOrderByStart(itemId, statuses, to, from);
+        return new ItemAvailabilityDto(itemId, from, to, AvailabilityCalendar.build(from, to, bookings));
+    }
+
+    /**
+     * Not transactional on purpose: a page served from the {@link ItemSearchCache} must not open a transaction
+     * or borrow a connection. The engine queries run in their own read-only transactions.
+     */
     public List<ItemDto> searchItems(String text, int from, int size) {
-        if (text.isEmpty()) {
+        List<String> tokens = SearchTokens.of(text);
+        if (tokens.isEmpty()) {
             return new ArrayList<>();
         }
         Pageable page = Pagination.getPage(from, size);
-        List<Item> items = itemRepository.findAllByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndAvailable(text,
-                text, true, page);
-        return itemMapper.toListItemDto(items);
+        return itemSearchCache.get(tokens, from, size,
+                () -> itemMapper.toListItemDto(itemSearchEngine.search(tokens, page)));
+    }
+
+    /**
+     * Text search restricted to items free for the whole [start, end): the engine checks bookings in the same
+     * query or index lookup. Not cached, since bookings change far more often than items. A window may not
+     * start in the past, the same as a booking.
+     */
+    public List<ItemDto> searchFreeItems(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        if (start == null || end == null) {
+            throw new InvalidPeriodException("Для поиска свободных вещей нужны начало и конец периода");
+        }
+        if (!start.isBefore(end)) {
+            throw new InvalidPeriodException("Начало периода должно быть раньше его конца");
+        }
+        if (start.isBefore(LocalDateTime.now())) {
+            throw new InvalidPeriodException("Начало периода не может быть в прошлом");
+        }
+        List<String> tokens = SearchTokens.of(text);
+        if (tokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return itemMapper.toListItemDto(itemSearchEngine.searchFree(tokens, start, end,
+                Pagination.getPage(from, size)));
+    }
+
+    public List<String> suggestNames(String prefix, int size) {
+        return itemNameSuggester.suggest(prefix, size);
     }
 
     @Transactional
@@ -104,7 +219,46 @@ public class ItemServiceImpl implements ItemService {
         User user = getUserById(userId);
         commentIsExist(userId, itemId);
         checkingUserForBookingItem(itemId, userId);
-        return itemMapper.toCommentDto(commentRepository.save(itemMapper.toCommentModel(commentDto, user, itemId)));
+        Comment saved = commentRepository.save(itemMapper.toCommentModel(commentDto, user, itemId));
+        eventPublisher.publishEvent(new CommentCreatedEvent(itemId));
+        return itemMapper.toCommentDto(saved);
+    }
+
+    private ItemView loadView(Long id, Long userId) {
+        getUserById(userId);
+        Item item = getItemById(id);
+        Map<Long, List<Comment>> commentsMapping = getItemCommentMapping(Set.of(item.getId()));
+        Map<Long, List<Booking>> lastBookingMapping = null;
+        Map<Long, List<Booking>> nextBookingMapping = null;
+        LocalDateTime validUntil = null;
+        boolean ownerView = Objects.equals(userId, item.getOwnerId());
+        if (ownerView) {
+            Map<Long, ItemBookingSummary> summaryMapping = itemBookingSummaryService
+                    .getItemBookingSummaryMapping(Set.of(item.getId()));
+            lastBookingMapping = toBookingMapping(summaryMapping, ItemBookingSummary::getLastBooking);
+            nextBookingMapping = toBookingMapping(summaryMapping, ItemBookingSummary::getNextBooking);
+            validUntil = viewBoundary(summaryMapping.get(item.getId()));
+        }
+        AdvancedItemDto view = itemMapper.toExtendInfoDto(List.of(item), commentsMapping, lastBookingMapping,
+                        nextBookingMapping)
+                .stream().findFirst().orElseThrow(() -> new RuntimeException("Ошибка маппинга ItemWithExtendInfoDto"));
+        return new ItemView(item.getOwnerId(), ownerView, view, validUntil);
+    }
+
+    /**
+     * The page shows other bookings once the next booking starts or the current last booking ends.
+     */
+    private LocalDateTime viewBoundary(ItemBookingSummary summary) {
+        if (summary == null) {
+            return null;
+        }
+        LocalDateTime boundary = summary.getNextBooking() == null ? null : summary.getNextBooking().getStart();
+        Booking last = summary.getLastBooking();
+        if (last != null && last.getEnd().isAfter(LocalDateTime.now())
+                && (boundary == null || last.getEnd().isBefore(boundary))) {
+            boundary = last.getEnd();
+        }
+        return boundary;
     }
 
     @Transactional(readOnly = true)
@@ -143,4 +297,44 @@ public class ItemServiceImpl implements ItemService {
                 .stream().collect(Collectors.groupingBy(Comment::getItemId));
         return commentMapping;
     }
+
+    private <T> CompletableFuture<T> lookup(Supplier<T> query) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return CompletableFuture.completedFuture(query.get());
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(enrichmentTimeoutMs + 999)));
+        return CompletableFuture.supplyAsync(() -> transaction.execute(status -> query.get()), itemEnrichmentExecutor);
+    }
+
+    private <T> T await(CompletableFuture<T> lookup, CompletableFuture<?> sibling) {
+        try {
+            return lookup.get(enrichmentTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            lookup.cancel(true);
+            sibling.cancel(true);
+            throw new ServiceTimeoutException(String.format("Данные о вещах не загружены за %s мс", enrichmentTimeoutMs));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceTimeoutException("Загрузка данных о вещах прервана");
+        } catch (ExecutionException e) {
+            sibling.cancel(true);
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private Map<Long, List<Booking>> toBookingMapping(Map<Long, ItemBookingSummary> summaryMapping,
+                                                      Function<ItemBookingSummary, Booking> booking) {
+        Map<Long, List<Booking>> bookingMapping = new HashMap<>();
+        summaryMapping.forEach((itemId, summary) -> {
+            if (booking.apply(summary) != null) {
+                bookingMapping.put(itemId, List.of(booking.apply(summary)));
+            }
+        });
+        return bookingMapping;
+    }
 }
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.item.suggest;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import javax.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Name completions for available items, served from an {@link ItemNameTrie}.
+ * The trie is loaded at startup and follows item changes once their transaction commits.
+ * Only the names of indexed items and the ids of their owners are kept.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ItemNameSuggester {
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ItemNameTrie trie = new ItemNameTrie();
+    private final Map<Long, String> names = new HashMap<>();
+    private final Map<Long, Set<Long>> itemIdsByOwner = new HashMap<>();
+    private Set<Long> changedWhileLoading;
+    private Set<Long> ownersDeletedWhileLoading;
+
+    /**
+     * Runs while the context starts, before the web server accepts requests. Changes applied while it runs
+     * are newer than the batch rows read so far, so rows of items saved or of owners deleted meanwhile are
+     * skipped.
+     */
+    @PostConstruct
+    public void warmUp() {
+        lock.writeLock().lock();
+        try {
+            changedWhileLoading = new HashSet<>();
+            ownersDeletedWhileLoading = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            long lastId = 0;
+            List<Item> batch;
+            do {
+                batch = itemRepository.findAllByIdGreaterThanOrderById(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                lock.writeLock().lock();
+                try {
+                    for (Item item : batch) {
+                        if (!changedWhileLoading.contains(item.getId())
+                                && !ownersDeletedWhileLoading.contains(item.getOwnerId())) {
+                            put(item);
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                lastId = batch.isEmpty() ? lastId : batch.get(batch.size() - 1).getId();
+            } while (batch.size() == LOAD_BATCH_SIZE);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                changedWhileLoading = null;
+                ownersDeletedWhileLoading = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Индекс подсказок названий вещей загружен, items={}", names.size());
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            return trie.complete(prefix, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemSaved(ItemSavedEvent event) {
+        lock.writeLock().lock();
+        try {
+            put(event.getItem());
+            if (changedWhileLoading != null) {
+                changedWhileLoading.add(event.getItem().getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            Set<Long> itemIds = itemIdsByOwner.remove(event.getUserId());
+            if (itemIds != null) {
+                itemIds.forEach(itemId -> trie.remove(names.remove(itemId)));
+            }
+            if (ownersDeletedWhileLoading != null) {
+                ownersDeletedWhileLoading.add(event.getUserId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Item item) {
+        String previous = item.getAvailable() ? names.put(item.getId(), item.getName()) : names.remove(item.getId());
+        if (previous != null) {
+            trie.remove(previous);
+        }
+        if (item.getAvailable()) {
+            trie.add(item.getName());
+            itemIdsByOwner.computeIfAbsent(item.getOwnerId(), ownerId -> new HashSet<>()).add(item.getId());
+        } else if (previous != null) {
+            Set<Long> itemIds = itemIdsByOwner.get(item.getOwnerId());
+            itemIds.remove(item.getId());
+            if (itemIds.isEmpty()) {
+                itemIdsByOwner.remove(item.getOwnerId());
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package ru.practicum.shareit.item.suggest;
+
+import java.util.*;
+
+/**
+ * Radix tree of lower-case item names. Each name counts how many available items carry it, and every node
+ * caches the {@link #MAX_COMPLETIONS} most common names below it. A lookup therefore only walks the prefix
+ * and never visits the subtree. Adding or removing a name recomputes the caches along its path.
+ * <p>
+ * The trie is not thread-safe: {@link ItemNameSuggester} guards it with a read-write lock.
+ */
+public class ItemNameTrie {
+    public static final int MAX_COMPLETIONS = 20;
+
+    private static final Comparator<Completion> BY_POPULARITY = Comparator.comparingInt(Completion::getCount)
+            .reversed().thenComparing(Completion::getKey);
+
+    private final Node root = new Node("");
+
+    /**
+     * Counts one more item named {@code name}. The first spelling seen for a key is the one suggested.
+     */
+    public void add(String name) {
+        String key = key(name);
+        if (key.isEmpty()) {
+            return;
+        }
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        int matched = 0;
+        path.push(node);
+        while (matched < key.length()) {
+            Node child = node.children.get(key.charAt(matched));
+            if (child == null) {
+                child = new Node(key.substring(matched));
+                node.children.put(key.charAt(matched), child);
+                node = child;
+                matched = key.length();
+            } else {
+                int common = commonPrefix(child.label, key, matched);
+                if (common < child.label.length()) {
+                    child = split(node, child, common);
+                }
+                node = child;
+                matched += common;
+            }
+            path.push(node);
+        }
+        if (node.completion == null) {
+            node.completion = new Completion(key, name.trim());
+        }
+        node.completion.count++;
+        refresh(path);
+    }
+
+    /**
+     * Counts one item named {@code name} less and forgets the name once no item carries it.
+     */
+    public void remove(String name) {
+        String key = key(name);
+        if (key.isEmpty()) {
+            return;
+        }
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        int matched = 0;
+        path.push(node);
+        while (matched < key.length()) {
+            node = node.children.get(key.charAt(matched));
+            if (node == null || !key.startsWith(node.label, matched)) {
+                return;
+            }
+            matched += node.label.length();
+            path.push(node);
+        }
+        if (node.completion == null) {
+            return;
+        }
+        if (--node.completion.count == 0) {
+            node.completion = null;
+            prune(new ArrayDeque<>(path));
+        }
+        refresh(path);
+    }
+
+    /**
+     * Up to {@code limit} names starting with {@code prefix}, most common first, then alphabetically.
+     */
+    public List<String> complete(String prefix, int limit) {
+        String key = key(prefix);
+        Node node = root;
+        int matched = 0;
+        while (matched < key.length()) {
+            node = node.children.get(key.charAt(matched));
+            if (node == null) {
+                return List.of();
+            }
+            int common = commonPrefix(node.label, key, matched);
+            if (common < node.label.length() && matched + common < key.length()) {
+                return List.of();
+            }
+            matched += common;
+        }
+        List<String> result = new ArrayList<>();
+        for (Completion completion : node.top) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(completion.name);
+        }
+        return result;
+    }
+
+    private Node split(Node parent, Node child, int at) {
+        Node middle = new Node(child.label.substring(0, at));
+        child.label = child.label.substring(at);
+        middle.children.put(child.label.charAt(0), child);
+        parent.children.put(middle.label.charAt(0), middle);
+        middle.top = child.top;
+        return middle;
+    }
+
+    private void prune(Deque<Node> path) {
+        Node node = path.pop();
+        while (!path.isEmpty() && node.completion == null && node.children.size() <= 1) {
+            Node parent = path.pop();
+            if (node.children.isEmpty()) {
+                parent.children.remove(node.label.charAt(0));
+            } else {
+                Node child = node.children.values().iterator().next();
+                child.label = node.label + child.label;
+                parent.children.put(child.label.charAt(0), child);
+            }
+            node = parent;
+        }
+    }
+
+    private void refresh(Deque<Node> path) {
+        for (Node node : path) {
+            List<Completion> candidates = new ArrayList<>();
+            if (node.completion != null) {
+                candidates.add(node.completion);
+            }
+            for (Node child : node.children.values()) {
+                candidates.addAll(child.top);
+            }
+            candidates.sort(BY_POPULARITY);
+            node.top = candidates.size() > MAX_COMPLETIONS ? new ArrayList<>(candidates.subList(0, MAX_COMPLETIONS))
+                    : candidates;
+        }
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int length = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < length && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private String label;
+        private Completion completion;
+        private List<Completion> top = new ArrayList<>();
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final class Completion {
+        private final String key;
+        private final String name;
+        private int count;
+
+        private Completion(String key, String name) {
+            this.key = key;
+            this.name = name;
+        }
+
+        private int getCount() {
+            return count;
+        }
+
+        private String getKey() {
+            return key;
+        }
+    }
+}
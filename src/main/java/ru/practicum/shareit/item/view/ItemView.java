@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.view;
+
+import lombok.Value;
+import ru.practicum.shareit.item.dto.AdvancedItemDto;
+
+import java.time.LocalDateTime;
+
+/**
+ * An assembled item page together with what decides who may see it and for how long: the owner view
+ * carries last and next bookings and is only valid until the next booking starts or the last one ends.
+ */
+@Value
+public class ItemView {
+    Long ownerId;
+    boolean ownerView;
+    AdvancedItemDto item;
+    LocalDateTime validUntil;
+
+    public boolean isValidAt(LocalDateTime time) {
+        return validUntil == null || validUntil.isAfter(time);
+    }
+}
@@ -0,0 +1,160 @@
+package ru.practicum.shareit.item.view;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.event.BookingStatusChangedEvent;
+import ru.practicum.shareit.item.event.CommentCreatedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.event.UserUpdatedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Assembled item pages, one for the owner and one shared by everybody else, bounded by
+ * {@code shareit.item-view.cache.max-size} entries and kept at most {@code shareit.item-view.cache.ttl-ms}.
+ * <p>
+ * An owner page expires at its {@link ItemView#getValidUntil() boundary}, when last and next bookings change
+ * meaning. Pages are dropped once an item update, a new comment, a booking status change or a change to a user
+ * commits; a page loaded while that happened is not kept. Hits, misses and evictions are published as the
+ * {@code cache.*} meters with the tag {@code cache=itemView}.
+ */
+@Component
+public class ItemViewCache {
+    private final Cache<Key, ItemView> views;
+    private final AtomicLong generation = new AtomicLong();
+
+    public ItemViewCache(MeterRegistry meterRegistry,
+                         @Value("${shareit.item-view.cache.max-size:10000}") long maxSize,
+                         @Value("${shareit.item-view.cache.ttl-ms:600000}") long ttlMs) {
+        this.views = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilBoundary(Duration.ofMillis(ttlMs)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, views, "itemView");
+    }
+
+    /**
+     * The cached page of the item for the user: the owner page if the user owns the item, otherwise the shared
+     * one. Inside a transaction nothing is served, the caller could have changed the item.
+     */
+    public Optional<ItemView> find(Long itemId, Long userId) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Optional.empty();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        ItemView ownerView = views.getIfPresent(new Key(itemId, true));
+        if (ownerView != null && Objects.equals(ownerView.getOwnerId(), userId) && ownerView.isValidAt(now)) {
+            return Optional.of(ownerView);
+        }
+        ItemView sharedView = views.getIfPresent(new Key(itemId, false));
+        if (sharedView != null && !Objects.equals(sharedView.getOwnerId(), userId)) {
+            return Optional.of(sharedView);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Assembles the page with {@code load} and keeps it, unless an invalidation ran meanwhile.
+     */
+    public ItemView load(Long itemId, Supplier<ItemView> load) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return load.get();
+        }
+        long loadedAt = generation.get();
+        ItemView view = load.get();
+        Key key = new Key(itemId, view.isOwnerView());
+        views.put(key, view);
+        if (generation.get() != loadedAt) {
+            views.asMap().remove(key, view);
+        }
+        return view;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemSaved(ItemSavedEvent event) {
+        invalidate(event.getItem().getId(), true);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentCreated(CommentCreatedEvent event) {
+        invalidate(event.getItemId(), true);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        invalidate(event.getItemId(), false);
+    }
+
+    /**
+     * Deleting a user deletes their items, comments and bookings, which may show on any page.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        generation.incrementAndGet();
+        views.invalidateAll();
+    }
+
+    /**
+     * Comments on any page carry their author's name, and pages do not record whose comments they show.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserUpdated(UserUpdatedEvent event) {
+        generation.incrementAndGet();
+        views.invalidateAll();
+    }
+
+    private void invalidate(Long itemId, boolean sharedViewToo) {
+        generation.incrementAndGet();
+        views.invalidate(new Key(itemId, true));
+        if (sharedViewToo) {
+            views.invalidate(new Key(itemId, false));
+        }
+    }
+
+    @lombok.Value
+    private static class Key {
+        Long itemId;
+        boolean ownerView;
+    }
+
+    private static final class UntilBoundary implements Expiry<Key, ItemView> {
+        private final Duration ttl;
+
+        private UntilBoundary(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        @Override
+        public long expireAfterCreate(Key key, ItemView view, long currentTime) {
+            if (view.getValidUntil() == null) {
+                return ttl.toNanos();
+            }
+            Duration untilBoundary = Duration.between(LocalDateTime.now(), view.getValidUntil());
+            return Math.max(0, Math.min(ttl.toNanos(), untilBoundary.toNanos()));
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, ItemView view, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, view, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Key key, ItemView view, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
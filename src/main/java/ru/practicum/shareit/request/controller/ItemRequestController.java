@@ -2,11 +2,13 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.AdvancedRequestItemDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.utils.PageCursor;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
@@ -38,11 +40,23 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    Collection<AdvancedRequestItemDto> getAllRequests(@RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                                      @RequestParam(defaultValue = "10") @Positive Integer size,
-                                                      @RequestHeader("X-Sharer-User-Id") Long userId) {
-        log.info("Получение списка чужих запросов для пользователя userId={}, from={}, size={}", userId, from, size);
-        return itemRequestService.getAllRequests(userId, from, size);
+    ResponseEntity<Collection<AdvancedRequestItemDto>> getAllRequests(@RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                                                      @RequestParam(defaultValue = "10") @Positive Integer size,
+                                                                      @RequestParam(required = false) String cursor,
+                                                                      @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Получение списка чужих запросов для пользователя userId={}, from={}, size={}, cursor={}",
+                userId, from, size, cursor);
+        if (cursor == null) {
+            return ResponseEntity.ok(itemRequestService.getAllRequests(userId, from, size));
+        }
+        Collection<AdvancedRequestItemDto> requests = itemRequestService.getAllRequests(userId,
+                cursor.isBlank() ? null : PageCursor.decode(cursor), size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (requests.size() == size) {
+            AdvancedRequestItemDto last = requests.stream().skip(size - 1).findFirst().orElseThrow();
+            response.header(PageCursor.NEXT_CURSOR_HEADER, new PageCursor(last.getCreated(), last.getId()).encode());
+        }
+        return response.body(requests);
     }
 
     @GetMapping("/{requestId}")
@@ -11,7 +11,6 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Mapper(componentModel = "spring")
 public interface ItemRequestMapper {
@@ -22,21 +21,15 @@ public interface ItemRequestMapper {
 
     ItemRequestDto toDto(ItemRequest itemRequest);
 
-    AdvancedRequestItemDto toAdvancedItemRequestDto(ItemRequest requests, List<ItemForRequestDto> items);
+    AdvancedRequestItemDto toAdvancedItemRequestDto(ItemRequestDto request, List<ItemForRequestDto> items);
 
     ItemForRequestDto toItemForRequestDto(Item item);
 
-    default List<AdvancedRequestItemDto> toListAdvancedItemRequestDto(List<ItemRequest> requests, Map<Long, List<Item>> items) {
+    default List<AdvancedRequestItemDto> toListAdvancedItemRequestDto(List<ItemRequestDto> requests,
+                                                                      Map<Long, List<ItemForRequestDto>> items) {
         LinkedList<AdvancedRequestItemDto> result = new LinkedList<>();
-        for (ItemRequest request : requests) {
-            List<ItemForRequestDto> itemRequestDtos;
-            if (items.containsKey(request.getId())) {
-                itemRequestDtos = items.get(request.getId()).stream().map(this::toItemForRequestDto)
-                        .collect(Collectors.toList());
-            } else {
-                itemRequestDtos = List.of();
-            }
-            result.add(toAdvancedItemRequestDto(request, itemRequestDtos));
+        for (ItemRequestDto request : requests) {
+            result.add(toAdvancedItemRequestDto(request, items.getOrDefault(request.getId(), List.of())));
         }
         return result;
     }
@@ -1,13 +1,30 @@
 package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import org.springframework.data.domain.Pageable;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
-    List<ItemRequest> findAllByUserId(Long userId, Pageable page);
+    String SELECT_DTO = "SELECT new ru.practicum.shareit.request.dto.ItemRequestDto(r.id, r.description, r.created) " +
+            "FROM ItemRequest r ";
 
-    List<ItemRequest> findAllByUserIdNot(Long userId, Pageable page);
+    @Query(value = SELECT_DTO + "WHERE r.userId = :userId")
+    List<ItemRequestDto> findAllByUserId(Long userId, Pageable page);
+
+    @Query(value = SELECT_DTO + "WHERE r.userId <> :userId")
+    List<ItemRequestDto> findAllByUserIdNot(Long userId, Pageable page);
+
+    /**
+     * {@code r.created <= :cursorCreated} is redundant with the OR but bounds the scan of requests_created_idx,
+     * which then starts at the cursor instead of the newest request.
+     */
+    @Query(value = SELECT_DTO + "WHERE r.userId <> :userId AND r.created <= :cursorCreated AND " +
+            "(r.created < :cursorCreated OR r.created = :cursorCreated AND r.id < :cursorId) " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequestDto> findAllByUserIdNotAfter(Long userId, LocalDateTime cursorCreated, Long cursorId, Pageable page);
 }
@@ -1,8 +1,9 @@
 package ru.practicum.shareit.request.service;
 
-import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.dto.ItemForRequestDto;
 import ru.practicum.shareit.request.dto.AdvancedRequestItemDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.utils.PageCursor;
 
 import java.util.List;
 import java.util.Map;
@@ -15,7 +16,9 @@ public interface ItemRequestService {
 
     List<AdvancedRequestItemDto> getAllRequests(Long userId, int from, int size);
 
+    List<AdvancedRequestItemDto> getAllRequests(Long userId, PageCursor cursor, int size);
+
     AdvancedRequestItemDto getRequestById(Long userId, Long requestId);
 
-    Map<Long, List<Item>> getRequestItemMapping(Set<Long> requestIds);
+    Map<Long, List<ItemForRequestDto>> getRequestItemMapping(Set<Long> requestIds);
 }
@@ -6,15 +6,15 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
-import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.dto.ItemForRequestDto;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.AdvancedRequestItemDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
-import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utils.PageCursor;
 import ru.practicum.shareit.utils.Pagination;
 
 import java.util.List;
@@ -40,26 +40,38 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     public List<AdvancedRequestItemDto> getOwnRequests(Long userId, int from, int size) {
         getUserById(userId);
         Pageable page = Pagination.getPage(from, size, Sort.by("created").descending());
-        List<ItemRequest> requests = itemRequestRepository.findAllByUserId(userId, page);
-        Set<Long> requestIds = requests.stream().map(ItemRequest::getId).collect(Collectors.toSet());
-        Map<Long, List<Item>> requestItemMapping = getRequestItemMapping(requestIds);
+        List<ItemRequestDto> requests = itemRequestRepository.findAllByUserId(userId, page);
+        Set<Long> requestIds = requests.stream().map(ItemRequestDto::getId).collect(Collectors.toSet());
+        Map<Long, List<ItemForRequestDto>> requestItemMapping = getRequestItemMapping(requestIds);
         return itemRequestMapper.toListAdvancedItemRequestDto(requests, requestItemMapping);
     }
 
     public List<AdvancedRequestItemDto> getAllRequests(Long userId, int from, int size) {
         getUserById(userId);
-        Pageable page = Pagination.getPage(from, size, Sort.by("created").descending());
-        List<ItemRequest> requests = itemRequestRepository.findAllByUserIdNot(userId, page);
-        Set<Long> requestIds = requests.stream().map(ItemRequest::getId).collect(Collectors.toSet());
-        Map<Long, List<Item>> requestItemMapping = getRequestItemMapping(requestIds);
+        Pageable page = Pagination.getPage(from, size, Sort.by(Sort.Direction.DESC, "created", "id"));
+        List<ItemRequestDto> requests = itemRequestRepository.findAllByUserIdNot(userId, page);
+        Set<Long> requestIds = requests.stream().map(ItemRequestDto::getId).collect(Collectors.toSet());
+        Map<Long, List<ItemForRequestDto>> requestItemMapping = getRequestItemMapping(requestIds);
+        return itemRequestMapper.toListAdvancedItemRequestDto(requests, requestItemMapping);
+    }
+
+    public List<AdvancedRequestItemDto> getAllRequests(Long userId, PageCursor cursor, int size) {
+        if (cursor == null) {
+            return getAllRequests(userId, 0, size);
+        }
+        getUserById(userId);
+        List<ItemRequestDto> requests = itemRequestRepository.findAllByUserIdNotAfter(userId, cursor.getPosition(),
+                cursor.getId(), Pagination.getLimit(size));
+        Set<Long> requestIds = requests.stream().map(ItemRequestDto::getId).collect(Collectors.toSet());
+        Map<Long, List<ItemForRequestDto>> requestItemMapping = getRequestItemMapping(requestIds);
         return itemRequestMapper.toListAdvancedItemRequestDto(requests, requestItemMapping);
     }
 
     public AdvancedRequestItemDto getRequestById(Long userId, Long requestId) {
         getUserById(userId);
-        ItemRequest request = itemRequestRepository.findById(requestId).orElseThrow(
+        ItemRequestDto request = itemRequestRepository.findById(requestId).map(itemRequestMapper::toDto).orElseThrow(
                 () -> new NotFoundException(String.format("Запрос по id = %s не найден!", requestId)));
-        Map<Long, List<Item>> requestItemMapping = getRequestItemMapping(Set.of(request.getId()));
+        Map<Long, List<ItemForRequestDto>> requestItemMapping = getRequestItemMapping(Set.of(request.getId()));
         return itemRequestMapper.toListAdvancedItemRequestDto(List.of(request), requestItemMapping)
                 .stream().findFirst().orElseThrow(() -> new RuntimeException("Ошибка при мапинге RequestWithItemInfoDto"));
     }
@@ -71,8 +83,8 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Transactional(readOnly = true)
-    public Map<Long, List<Item>> getRequestItemMapping(Set<Long> requestIds) {
+    public Map<Long, List<ItemForRequestDto>> getRequestItemMapping(Set<Long> requestIds) {
         return itemRepository.findAllByRequestIdIn(requestIds)
-                .stream().collect(Collectors.groupingBy(Item::getRequestId));
+                .stream().collect(Collectors.groupingBy(ItemForRequestDto::getRequestId));
     }
 }
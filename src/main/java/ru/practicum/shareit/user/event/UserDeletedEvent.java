@@ -0,0 +1,11 @@
+package ru.practicum.shareit.user.event;
+
+import lombok.Value;
+
+/**
+ * Published when a user is deleted together with their items, bookings and comments.
+ */
+@Value
+public class UserDeletedEvent {
+    Long userId;
+}
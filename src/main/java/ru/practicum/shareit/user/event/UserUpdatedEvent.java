@@ -0,0 +1,13 @@
+package ru.practicum.shareit.user.event;
+
+import lombok.Value;
+
+/**
+ * Published inside the transaction of a user update, with the saved name and email.
+ */
+@Value
+public class UserUpdatedEvent {
+    Long userId;
+    String name;
+    String email;
+}
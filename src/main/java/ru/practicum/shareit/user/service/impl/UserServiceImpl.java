@@ -2,10 +2,13 @@ package ru.practicum.shareit.user.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.event.UserUpdatedEvent;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
@@ -19,6 +22,7 @@ import java.util.List;
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<UserDto> getAll() {
@@ -41,12 +45,15 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public UserDto update(UserDto userDto, Long userId) {
         User user = userMapper.toModel(getById(userId));
-        return userMapper.toDto(userRepository.save(userMapper.updateModel(user, userDto)));
+        User saved = userRepository.save(userMapper.updateModel(user, userDto));
+        eventPublisher.publishEvent(new UserUpdatedEvent(saved.getId(), saved.getName(), saved.getEmail()));
+        return userMapper.toDto(saved);
     }
 
     @Transactional
     public void delete(Long id) {
         getById(id);
         userRepository.deleteById(id);
+        eventPublisher.publishEvent(new UserDeletedEvent(id));
     }
 }
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs an action in its own transaction and repeats it, up to {@code shareit.optimistic-retry.max-attempts}
+ * times, when the transaction loses a version check. Every attempt reads fresh state, so a repeated action
+ * either succeeds or fails on the change that beat it. Inside a running transaction the action runs once:
+ * only the outer transaction could be repeated.
+ */
+@Component
+@Slf4j
+public class OptimisticRetryTemplate {
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final Counter retries;
+
+    public OptimisticRetryTemplate(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                   @Value("${shareit.optimistic-retry.max-attempts:3}") int maxAttempts) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.retries = meterRegistry.counter("optimistic.retries");
+    }
+
+    public <T> T execute(Supplier<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                retries.increment();
+                log.debug("Конфликт версий, повтор attempt={}: {}", attempt, e.getMessage());
+            }
+        }
+    }
+}
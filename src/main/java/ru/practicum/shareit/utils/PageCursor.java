@@ -0,0 +1,45 @@
+package ru.practicum.shareit.utils;
+
+import lombok.Value;
+
+import javax.validation.ValidationException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position: the sort timestamp and id of the last row of the previous page.
+ * The timestamp is kept at the precision the database stores.
+ */
+@Value
+public class PageCursor {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String SEPARATOR = "|";
+
+    LocalDateTime position;
+
+    Long id;
+
+    public PageCursor(LocalDateTime position, Long id) {
+        this.position = position.truncatedTo(ChronoUnit.MICROS);
+        this.id = id;
+    }
+
+    public String encode() {
+        String raw = position + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new PageCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new ValidationException(String.format("Некорректный курсор: %s", cursor));
+        }
+    }
+}
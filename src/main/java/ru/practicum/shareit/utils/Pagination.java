@@ -14,4 +14,8 @@ public class Pagination {
     public Pageable getPage(int from, int size, Sort sort) {
         return PageRequest.of(from > 0 ? from / size : 0, size, sort);
     }
+
+    public Pageable getLimit(int size) {
+        return PageRequest.of(0, size);
+    }
 }
@@ -0,0 +1,4 @@
+CREATE INDEX IF NOT EXISTS booking_view_booker_idx ON booking_view (booker_id, date_start DESC, booking_id DESC, date_end, status);
+CREATE INDEX IF NOT EXISTS booking_view_booker_status_idx ON booking_view (booker_id, status, date_start DESC, booking_id DESC);
+CREATE INDEX IF NOT EXISTS booking_view_owner_idx ON booking_view (owner_id, date_start DESC, booking_id DESC, date_end, status);
+CREATE INDEX IF NOT EXISTS booking_view_owner_status_idx ON booking_view (owner_id, status, date_start DESC, booking_id DESC);
@@ -0,0 +1,30 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Runs on every startup: PostgreSQL has no ADD CONSTRAINT IF NOT EXISTS. The block is a quoted string so that
+-- the script runner does not split it at its semicolons.
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conrelid = ''bookings''::regclass AND conname = ''bookings_approved_no_overlap'') THEN
+        ALTER TABLE bookings ADD CONSTRAINT bookings_approved_no_overlap
+            EXCLUDE USING gist (item_id WITH =, tsrange(date_start, date_end) WITH &&) WHERE (status = ''APPROVED'');
+    END IF;
+END';
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', name), 'A') || setweight(to_tsvector('simple', description), 'B')) STORED;
+
+CREATE INDEX IF NOT EXISTS items_search_vector_idx ON items USING gin (search_vector);
+
+CREATE INDEX IF NOT EXISTS booking_view_booker_idx ON booking_view (booker_id, date_start DESC, booking_id DESC)
+    INCLUDE (status, date_end, item_id, item_name, item_description, item_available, item_request_id, booker_name,
+             booker_email);
+CREATE INDEX IF NOT EXISTS booking_view_booker_status_idx ON booking_view (booker_id, status, date_start DESC, booking_id DESC)
+    INCLUDE (date_end, item_id, item_name, item_description, item_available, item_request_id, booker_name,
+             booker_email);
+CREATE INDEX IF NOT EXISTS booking_view_owner_idx ON booking_view (owner_id, date_start DESC, booking_id DESC)
+    INCLUDE (status, date_end, item_id, item_name, item_description, item_available, item_request_id, booker_id,
+             booker_name, booker_email);
+CREATE INDEX IF NOT EXISTS booking_view_owner_status_idx ON booking_view (owner_id, status, date_start DESC, booking_id DESC)
+    INCLUDE (date_end, item_id, item_name, item_description, item_available, item_request_id, booker_id,
+             booker_name, booker_email);
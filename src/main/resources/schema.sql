@@ -1,4 +1,4 @@
-DROP TABLE IF EXISTS comments, bookings, items, users, requests;
+DROP TABLE IF EXISTS booking_view, item_booking_summary, comments, bookings, items, users, requests;
 CREATE TABLE IF NOT EXISTS users
 (
     id    BIGINT GENERATED ALWAYS AS IDENTITY NOT NULL,
@@ -17,6 +17,7 @@ CREATE TABLE IF NOT EXISTS items
     available   BOOLEAN                             NOT NULL,
     owner_id    BIGINT                              NOT NULL,
     request_id  BIGINT,
+    version     BIGINT                              NOT NULL DEFAULT 0,
 
     PRIMARY KEY (id),
     FOREIGN KEY (owner_id) REFERENCES users (id) ON DELETE CASCADE
@@ -30,6 +31,7 @@ CREATE TABLE IF NOT EXISTS bookings
     booker_id  BIGINT                              NOT NULL,
     date_start TIMESTAMP WITHOUT TIME ZONE         NOT NULL,
     date_end   TIMESTAMP WITHOUT TIME ZONE         NOT NULL,
+    version    BIGINT                              NOT NULL DEFAULT 0,
 
     PRIMARY KEY (id),
     FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
@@ -58,4 +60,61 @@ CREATE TABLE IF NOT EXISTS requests
 
     PRIMARY KEY (id),
     FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+CREATE INDEX IF NOT EXISTS bookings_item_status_start_idx ON bookings (item_id, status, date_start);
+CREATE INDEX IF NOT EXISTS bookings_item_status_end_idx ON bookings (item_id, status, date_end, date_start);
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, date_start DESC, id DESC);
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON bookings (item_id, date_start DESC, id DESC);
+CREATE INDEX IF NOT EXISTS bookings_status_start_idx ON bookings (status, date_start, id);
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (owner_id);
+CREATE INDEX IF NOT EXISTS requests_created_idx ON requests (created DESC, id DESC);
+
+CREATE TABLE IF NOT EXISTS item_booking_summary
+(
+    item_id         BIGINT                      NOT NULL,
+    last_booking_id BIGINT,
+    next_booking_id BIGINT,
+    valid_until     TIMESTAMP WITHOUT TIME ZONE,
+
+    PRIMARY KEY (item_id),
+    FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
+    FOREIGN KEY (last_booking_id) REFERENCES bookings (id) ON DELETE SET NULL,
+    FOREIGN KEY (next_booking_id) REFERENCES bookings (id) ON DELETE SET NULL
+);
+CREATE INDEX IF NOT EXISTS item_booking_summary_valid_until_idx ON item_booking_summary (valid_until);
+
+CREATE TABLE IF NOT EXISTS booking_view
+(
+    booking_id       BIGINT                      NOT NULL,
+    booker_id        BIGINT                      NOT NULL,
+    owner_id         BIGINT                      NOT NULL,
+    item_id          BIGINT                      NOT NULL,
+    status           VARCHAR(255)                NOT NULL,
+    date_start       TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    date_end         TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    item_name        VARCHAR(255)                NOT NULL,
+    item_description VARCHAR(512)                NOT NULL,
+    item_available   BOOLEAN                     NOT NULL,
+    item_request_id  BIGINT,
+    booker_name      VARCHAR(255)                NOT NULL,
+    booker_email     VARCHAR(512)                NOT NULL,
+
+    PRIMARY KEY (booking_id),
+    FOREIGN KEY (booking_id) REFERENCES bookings (id) ON DELETE CASCADE
+);
+CREATE INDEX IF NOT EXISTS booking_view_item_start_idx ON booking_view (item_id, date_start);
+
+CREATE TABLE IF NOT EXISTS idempotency_keys
+(
+    id_key       VARCHAR(320)                NOT NULL,
+    fingerprint  VARCHAR(32)                 NOT NULL,
+    claim_token  VARCHAR(36),
+    status       INTEGER,
+    content_type VARCHAR(255),
+    body         BYTEA,
+    created      TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+
+    PRIMARY KEY (id_key)
+);
+ALTER TABLE idempotency_keys ADD COLUMN IF NOT EXISTS claim_token VARCHAR(36);
+CREATE INDEX IF NOT EXISTS idempotency_keys_created_idx ON idempotency_keys (created);
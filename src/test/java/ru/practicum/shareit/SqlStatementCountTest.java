@@ -0,0 +1,142 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingViewService;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utils.SqlStatementCounter;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards the number of SQL statements per endpoint: every endpoint must stay constant in the number of
+ * bookings, comments and items it returns. Data is seeded with several rows per relation and committed, so
+ * a lazy association read per row shows up as extra statements. The test runs without a surrounding
+ * transaction, as requests do, so the parallel item lookups and the item caches are counted too.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "shareit.booking-summary.refresh-delay-ms=3600000"
+})
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class SqlStatementCountTest {
+    private static final int ROWS = 5;
+
+    private final MockMvc mvc;
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final ItemRequestRepository requestRepository;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final BookingViewService bookingViewService;
+    private final JdbcTemplate jdbcTemplate;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private Booking booking;
+    private ItemRequest request;
+
+    @BeforeEach
+    void seed() {
+        cleanUp();
+        owner = userRepository.save(new User(null, "Owner", "sql-count-owner@mail.com"));
+        booker = userRepository.save(new User(null, "Booker", "sql-count-booker@mail.com"));
+        request = requestRepository.save(new ItemRequest(null, "Request", null, booker.getId()));
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> itemIds = new HashSet<>();
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            item = itemRepository.save(new Item(null, "Item " + i, "Item desc", true, owner.getId(), request.getId()));
+            itemIds.add(item.getId());
+            List<User> authors = new ArrayList<>();
+            for (int j = 0; j < ROWS; j++) {
+                User author = userRepository.save(new User(null, "Author", "sql-count-" + i + "-" + j + "@mail.com"));
+                authors.add(author);
+                commentRepository.save(new Comment(null, item.getId(), author, "text", null));
+            }
+            booking = bookingRepository.save(new Booking(null, item, BookingStatus.APPROVED, authors.get(0),
+                    now.minusDays(i + 2), now.minusDays(i + 1)));
+            bookingIds.add(booking.getId());
+            bookingIds.add(bookingRepository.save(new Booking(null, item, BookingStatus.APPROVED, booker,
+                    now.plusDays(i + 1), now.plusDays(i + 2))).getId());
+        }
+        itemBookingSummaryService.refresh(itemIds);
+        bookingViewService.add(bookingIds);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE 'sql-count-%'");
+    }
+
+    @Test
+    void itemEndpointsShouldUseConstantNumberOfStatements() throws Exception {
+        assertStatements(4, "/items", owner);
+        assertStatements(4, "/items/" + item.getId(), owner);
+        assertStatements(3, "/items/" + item.getId(), booker);
+    }
+
+    @Test
+    void cachedItemEndpointsShouldNotRepeatTheirQueries() throws Exception {
+        assertStatements(4, "/items/" + item.getId(), owner);
+        assertStatements(0, "/items/" + item.getId(), owner);
+        assertStatements(3, "/items/" + item.getId(), booker);
+        assertStatements(1, "/items/" + item.getId(), booker);
+        assertStatements(1, "/items/search?text=item", booker);
+        assertStatements(0, "/items/search?text=item", booker);
+    }
+
+    @Test
+    void bookingEndpointsShouldUseConstantNumberOfStatements() throws Exception {
+        assertStatements(2, "/bookings/" + booking.getId(), owner);
+        assertStatements(2, "/bookings?state=ALL", booker);
+        assertStatements(2, "/bookings/owner?state=ALL", owner);
+        assertStatements(2, "/bookings/owner/counts", owner);
+    }
+
+    @Test
+    void requestEndpointsShouldUseConstantNumberOfStatements() throws Exception {
+        assertStatements(3, "/requests", booker);
+        assertStatements(3, "/requests/all", owner);
+        assertStatements(3, "/requests/" + request.getId(), owner);
+    }
+
+    private void assertStatements(long expected, String url, User user) throws Exception {
+        SqlStatementCounter counter = new SqlStatementCounter(entityManagerFactory);
+        long statements = counter.count(() -> {
+            mvc.perform(get(url).header("X-Sharer-User-Id", user.getId())).andExpect(status().isOk());
+        });
+        assertEquals(expected, statements, "SQL statements for GET " + url);
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.dto.create.CreateBookingDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * JMH comparison of {@code POST /bookings} called once per booking with {@code POST /bookings/batch}, in bookings
+ * per second. Not part of the regular test run, start explicitly:
+ * {@code mvn test -Dtest=BookingBatchBenchmark -Dshareit.benchmark.items=1000}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(BookingBatchBenchmark.BOOKINGS_PER_CALL)
+public class BookingBatchBenchmark {
+    static final int BOOKINGS_PER_CALL = 100;
+
+    @Param({"1000"})
+    public int items;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mvc;
+    private ObjectMapper mapper;
+    private Long bookerId;
+    private Long firstItemId;
+    private final Random random = new Random(42);
+    private LocalDateTime nextStart;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .profiles("test")
+                .properties("server.port=0", "spring.jpa.show-sql=false",
+                        "logging.level.org.springframework.transaction.interceptor=INFO",
+                        "logging.level.org.springframework.orm.jpa.JpaTransactionManager=INFO")
+                .run();
+        mvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+        mapper = context.getBean(ObjectMapper.class);
+        seed(context.getBean(JdbcTemplate.class));
+        nextStart = LocalDateTime.now().plusDays(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.getBean(JdbcTemplate.class).update("DELETE FROM users WHERE email LIKE 'bench-%'");
+        context.close();
+    }
+
+    @Benchmark
+    public void single() throws Exception {
+        for (CreateBookingDto booking : nextBookings()) {
+            mvc.perform(post("/bookings")
+                            .header("X-Sharer-User-Id", bookerId)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(mapper.writeValueAsString(booking)))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @Benchmark
+    public void batch() throws Exception {
+        mvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", bookerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(nextBookings())))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void compareSingleAndBatchCreation() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(BookingBatchBenchmark.class.getName())
+                .param("items", System.getProperty("shareit.benchmark.items", "1000"))
+                .forks(0)
+                .warmupIterations(2)
+                .warmupTime(TimeValue.seconds(2))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(2))
+                .build();
+        new Runner(options).run();
+    }
+
+    private List<CreateBookingDto> nextBookings() {
+        List<CreateBookingDto> bookings = new ArrayList<>(BOOKINGS_PER_CALL);
+        for (int i = 0; i < BOOKINGS_PER_CALL; i++) {
+            nextStart = nextStart.plusMinutes(1);
+            bookings.add(new CreateBookingDto(null, firstItemId + random.nextInt(items), null, nextStart,
+                    nextStart.plusHours(1)));
+        }
+        return bookings;
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('Owner', 'bench-batch-owner@mail.com')");
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('Booker', 'bench-batch-booker@mail.com')");
+        Long ownerId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = 'bench-batch-owner@mail.com'",
+                Long.class);
+        bookerId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = 'bench-batch-booker@mail.com'",
+                Long.class);
+        List<Object[]> batch = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            batch.add(new Object[]{"Item " + i, "Item desc " + i, ownerId});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO items (name, description, available, owner_id) VALUES (?, ?, TRUE, ?)",
+                batch);
+        firstItemId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM items WHERE owner_id = ?", Long.class, ownerId);
+    }
+}
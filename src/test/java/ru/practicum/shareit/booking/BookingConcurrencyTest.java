@@ -0,0 +1,132 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.create.CreateBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.exception.NoChangeStatusException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingConcurrencyTest {
+    private static final int WRITERS = 64;
+
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingService bookingService;
+
+    private final List<User> users = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    void concurrentWritersShouldNotDoubleBookItem() throws Exception {
+        User owner = userRepository.save(new User(null, "Owner", "concurrency-owner@mail.com"));
+        users.add(owner);
+        Item item = itemRepository.save(new Item(null, "Item", "Item desc", true, owner.getId(), null));
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < WRITERS; i++) {
+            bookers.add(userRepository.save(new User(null, "Booker " + i, "concurrency-booker" + i + "@mail.com")));
+        }
+        users.addAll(bookers);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < WRITERS; i++) {
+            User booker = bookers.get(i);
+            LocalDateTime bookingStart = start.plusHours(i % 4);
+            futures.add(executor.submit(() -> {
+                startSignal.await();
+                try {
+                    BookingDto booking = bookingService.createBooking(booker.getId(),
+                            new CreateBookingDto(null, item.getId(), null, bookingStart, bookingStart.plusDays(1)));
+                    bookingService.updateBookingStatus(owner.getId(), booking.getId(), true);
+                } catch (BookingConflictException | NoChangeStatusException e) {
+                    // losing writers either conflict or find their request already rejected by the winner
+                    conflicts.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        startSignal.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        long approved = bookingRepository.findAll().stream()
+                .filter(b -> b.getItem().getId().equals(item.getId()))
+                .map(Booking::getStatus)
+                .filter(status -> status == BookingStatus.APPROVED)
+                .count();
+        assertEquals(1, approved);
+        assertEquals(WRITERS - 1, conflicts.get());
+    }
+
+    @Test
+    void concurrentDecisionsOnOneBookingShouldNotOverwriteEachOther() throws Exception {
+        User owner = userRepository.save(new User(null, "Owner", "concurrency-owner@mail.com"));
+        users.add(owner);
+        User booker = userRepository.save(new User(null, "Booker", "concurrency-booker@mail.com"));
+        users.add(booker);
+        Item item = itemRepository.save(new Item(null, "Item", "Item desc", true, owner.getId(), null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        for (int round = 0; round < 10; round++) {
+            BookingDto booking = bookingService.createBooking(booker.getId(), new CreateBookingDto(null, item.getId(),
+                    null, start.plusDays(round), start.plusDays(round).plusHours(1)));
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            CountDownLatch startSignal = new CountDownLatch(1);
+            List<Future<BookingStatus>> futures = new ArrayList<>();
+            for (boolean approved : new boolean[]{true, false}) {
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    try {
+                        return bookingService.updateBookingStatus(owner.getId(), booking.getId(), approved).getStatus();
+                    } catch (NoChangeStatusException e) {
+                        return null;
+                    }
+                }));
+            }
+            startSignal.countDown();
+            List<BookingStatus> winners = new ArrayList<>();
+            for (Future<BookingStatus> future : futures) {
+                BookingStatus status = future.get(60, TimeUnit.SECONDS);
+                if (status != null) {
+                    winners.add(status);
+                }
+            }
+            executor.shutdown();
+
+            assertEquals(1, winners.size());
+            assertEquals(winners.get(0), bookingRepository.findById(booking.getId()).orElseThrow().getStatus());
+        }
+    }
+}
@@ -12,28 +12,41 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStateCountDto;
 import ru.practicum.shareit.booking.dto.create.CreateBookingDto;
+import ru.practicum.shareit.booking.dto.create.CreateBookingResultDto;
 import ru.practicum.shareit.booking.mapper.BookingMapperImpl;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCreationOutcome;
+import ru.practicum.shareit.booking.model.BookingDecisionOutcome;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.mapper.ItemMapperImpl;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.mapper.UserMapperImpl;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.PageCursor;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
@@ -66,7 +79,7 @@ public class BookingControllerTest {
         item.setId(2L);
         LocalDateTime start = LocalDateTime.now().plusDays(5);
         LocalDateTime end = start.plusDays(2);
-        booking = new BookingDto(3L, itemMapper.toItemDto(item), userMapper.toDto(user), null, start, end);
+        booking = new BookingDto(3L, itemMapper.toItemDto(item), userMapper.toDto(user), null, start, end, null);
     }
 
     @Test
@@ -134,6 +147,95 @@ public class BookingControllerTest {
         assertThat(getResponseGetBookingsByStateOwner(userId, 0, -1, BookingState.PAST.toString()).getStatus(), is(400));
     }
 
+    @Test
+    void getBookingsByCursorReturnsNextCursorForFullPage() throws Exception {
+        final long userId = booking.getBooker().getId();
+        final PageCursor cursor = new PageCursor(booking.getStart(), booking.getId());
+
+        when(bookingService.getBookingsForUser(any(), any(), nullable(PageCursor.class), anyInt())).thenReturn(List.of(booking));
+        when(bookingService.getBookingsForUser(any(), any(), anyInt(), anyInt())).thenReturn(List.of(booking));
+
+        MockHttpServletResponse offsetPage = getResponseGetBookingsByState(userId, 0, 1, null);
+        assertThat(offsetPage.getHeader(PageCursor.NEXT_CURSOR_HEADER), is((String) null));
+
+        MvcResult firstPage = mvc.perform(get("/bookings")
+                        .param("cursor", "")
+                        .param("size", "1")
+                        .header("X-Sharer-User-Id", userId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn();
+        assertThat(firstPage.getResponse().getHeader(PageCursor.NEXT_CURSOR_HEADER), is(cursor.encode()));
+        verify(bookingService, times(1)).getBookingsForUser(userId, BookingState.ALL, (PageCursor) null, 1);
+
+        MvcResult mvcResult = mvc.perform(get("/bookings")
+                        .param("cursor", cursor.encode())
+                        .param("size", "2")
+                        .header("X-Sharer-User-Id", userId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn();
+        assertThat(mvcResult.getResponse().getStatus(), is(200));
+        assertThat(mvcResult.getResponse().getHeader(PageCursor.NEXT_CURSOR_HEADER), is((String) null));
+        verify(bookingService, times(1)).getBookingsForUser(userId, BookingState.ALL, cursor, 2);
+
+        MvcResult invalidCursor = mvc.perform(get("/bookings/owner")
+                        .param("cursor", "not-a-cursor")
+                        .header("X-Sharer-User-Id", userId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn();
+        assertThat(invalidCursor.getResponse().getStatus(), is(400));
+    }
+
+    @Test
+    void countBookingsByStateReturnsCountsForUserAndOwner() throws Exception {
+        final long userId = booking.getBooker().getId();
+        BookingStateCountDto counts = new BookingStateCountDto(6L, 1L, 2L, 3L, 1L, 0L);
+        when(bookingService.countBookingsForUser(any())).thenReturn(counts);
+        when(bookingService.countBookingsForItemOwner(any())).thenReturn(counts);
+
+        MockHttpServletResponse userResponse = mvc.perform(get("/bookings/counts")
+                        .header("X-Sharer-User-Id", userId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse();
+        assertThat(userResponse.getStatus(), is(200));
+        assertThat(mapper.readValue(userResponse.getContentAsString(), BookingStateCountDto.class), is(counts));
+        verify(bookingService, times(1)).countBookingsForUser(userId);
+
+        MockHttpServletResponse ownerResponse = mvc.perform(get("/bookings/owner/counts")
+                        .header("X-Sharer-User-Id", userId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse();
+        assertThat(ownerResponse.getStatus(), is(200));
+        verify(bookingService, times(1)).countBookingsForItemOwner(userId);
+    }
+
+    @Test
+    void exportBookingsOwnerWritesOneBookingPerLine() throws Exception {
+        final long userId = booking.getBooker().getId();
+        BookingDto other = booking.toBuilder().id(4L).build();
+        doAnswer(invocation -> {
+            Consumer<BookingDto> consumer = invocation.getArgument(1);
+            consumer.accept(booking);
+            consumer.accept(other);
+            return null;
+        }).when(bookingService).exportBookingsForItemOwner(eq(userId), any());
+
+        MockHttpServletResponse response = mvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", userId))
+                .andReturn().getResponse();
+        assertThat(response.getStatus(), is(200));
+        assertThat(response.getContentType(), is(MediaType.APPLICATION_NDJSON_VALUE));
+        String[] lines = response.getContentAsString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines.length, is(2));
+        assertThat(mapper.readValue(lines[0], BookingDto.class), is(booking));
+        assertThat(mapper.readValue(lines[1], BookingDto.class), is(other));
+
+        doThrow(new NotFoundException("Пользователь не найден"))
+                .when(bookingService).exportBookingsForItemOwner(eq(999L), any());
+        assertThat(mvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 999L))
+                .andReturn().getResponse().getStatus(), is(404));
+    }
+
     @Test
     void updateBookingStatusWithValidParametersReturnsAnswer() throws Exception {
         final long userId = booking.getBooker().getId();
@@ -146,6 +248,74 @@ public class BookingControllerTest {
 
         assertThat(getResponseUpdateBookingStatus(userId, bookingId, false).getStatus(), is(200));
         verify(bookingService, times(1)).updateBookingStatus(userId, bookingId, false);
+
+        when(bookingService.updateBookingStatus(any(), any(), anyBoolean()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, bookingId));
+        assertThat(getResponseUpdateBookingStatus(userId, bookingId, true).getStatus(), is(409));
+    }
+
+    @Test
+    void createBookingsWithValidParametersReturnsAnswerAndInvalidParametersReturnsError() throws Exception {
+        final long userId = booking.getBooker().getId();
+        final CreateBookingDto valid = new CreateBookingDto(null, booking.getItem().getId(), null, booking.getStart(), booking.getEnd());
+        final CreateBookingDto invalid = new CreateBookingDto(null, booking.getItem().getId(), null, booking.getEnd(), booking.getStart());
+        List<CreateBookingResultDto> results = List.of(
+                CreateBookingResultDto.builder().outcome(BookingCreationOutcome.CREATED).booking(booking).build(),
+                CreateBookingResultDto.builder().outcome(BookingCreationOutcome.CONFLICT).error("conflict").build());
+        when(bookingService.createBookings(any(), any())).thenReturn(results);
+
+        MvcResult mvcResult = mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(List.of(valid, valid)))
+                        .header("X-Sharer-User-Id", userId)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn();
+        assertThat(mvcResult.getResponse().getStatus(), is(200));
+        assertThat(mvcResult.getResponse().getContentAsString(StandardCharsets.UTF_8), is(mapper.writeValueAsString(results)));
+
+        mvcResult = mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(List.of(valid, invalid)))
+                        .header("X-Sharer-User-Id", userId)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn();
+        assertThat(mvcResult.getResponse().getStatus(), is(400));
+        verify(bookingService, times(1)).createBookings(any(), any());
+    }
+
+    @Test
+    void updateBookingStatusesWithValidParametersReturnsAnswerAndInvalidParametersReturnsError() throws Exception {
+        final long userId = booking.getBooker().getId();
+        final long bookingId = booking.getId();
+        List<BookingDecisionResultDto> results = List.of(BookingDecisionResultDto.builder()
+                .bookingId(bookingId)
+                .outcome(BookingDecisionOutcome.UPDATED)
+                .status(BookingStatus.APPROVED)
+                .build());
+        when(bookingService.updateBookingStatuses(any(), any())).thenReturn(results);
+
+        MockHttpServletResponse response = getResponseUpdateBookingStatuses(userId,
+                List.of(new BookingDecisionDto(bookingId, true)));
+        assertThat(response.getStatus(), is(200));
+        assertThat(response.getContentAsString(StandardCharsets.UTF_8), is(mapper.writeValueAsString(results)));
+        verify(bookingService, times(1)).updateBookingStatuses(userId, List.of(new BookingDecisionDto(bookingId, true)));
+
+        assertThat(getResponseUpdateBookingStatuses(userId, List.of()).getStatus(), is(400));
+        assertThat(getResponseUpdateBookingStatuses(userId, List.of(new BookingDecisionDto(bookingId, null))).getStatus(), is(400));
+        verify(bookingService, times(1)).updateBookingStatuses(any(), any());
+    }
+
+    private MockHttpServletResponse getResponseUpdateBookingStatuses(Long userId, List<BookingDecisionDto> decisions) throws Exception {
+        MvcResult mvcResult = mvc.perform(patch("/bookings/batch")
+                        .content(mapper.writeValueAsString(decisions))
+                        .header("X-Sharer-User-Id", userId)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn();
+        return mvcResult.getResponse();
     }
 
     private MockHttpServletResponse getResponseUpdateBookingStatus(Long userId, Long bookingId, Boolean approved) throws Exception {
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingExpiryService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {"shareit.booking-expiry.batch-size=2", "shareit.booking-expiry.delay-ms=3600000"})
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingExpiryServiceTest {
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingExpiryService bookingExpiryService;
+    private final MeterRegistry meterRegistry;
+
+    @Test
+    void shouldExpireStartedWaitingBookingsInBatches() {
+        User owner = userRepository.save(new User(null, "Owner", "expiry-owner@mail.com"));
+        User booker = userRepository.save(new User(null, "Booker", "expiry-booker@mail.com"));
+        Item item = itemRepository.save(new Item(null, "Item", "Item desc", true, owner.getId(), null));
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> stale = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            stale.add(bookingRepository.save(new Booking(null, item, BookingStatus.WAITING, booker,
+                    now.minusHours(i), now.plusHours(i))));
+        }
+        Booking future = bookingRepository.save(new Booking(null, item, BookingStatus.WAITING, booker,
+                now.plusDays(1), now.plusDays(2)));
+        Booking approved = bookingRepository.save(new Booking(null, item, BookingStatus.APPROVED, booker,
+                now.minusDays(2), now.minusDays(1)));
+        bookingRepository.flush();
+        double expiredBefore = meterRegistry.get("booking.expiry.expired").counter().count();
+        long batchesBefore = meterRegistry.get("booking.expiry.batch").timer().count();
+
+        assertEquals(5, bookingExpiryService.expireStale());
+
+        for (Booking booking : stale) {
+            assertEquals(BookingStatus.EXPIRED, bookingRepository.findById(booking.getId()).orElseThrow().getStatus());
+        }
+        assertEquals(BookingStatus.WAITING, bookingRepository.findById(future.getId()).orElseThrow().getStatus());
+        assertEquals(BookingStatus.APPROVED, bookingRepository.findById(approved.getId()).orElseThrow().getStatus());
+        assertEquals(5, meterRegistry.get("booking.expiry.expired").counter().count() - expiredBefore);
+        assertEquals(3, meterRegistry.get("booking.expiry.batch").timer().count() - batchesBefore);
+        assertEquals(0, bookingExpiryService.expireStale());
+    }
+}
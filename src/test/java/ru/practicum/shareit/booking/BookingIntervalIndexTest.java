@@ -0,0 +1,104 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.event.BookingTransitionEvent;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.timer.BookingTransition;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookingIntervalIndexTest {
+    private final BookingIntervalIndex index = new BookingIntervalIndex(null);
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+    @Test
+    void shouldDetectOnlyApprovedOverlaps() {
+        register(1L, 1L, start, start.plusDays(2), BookingStatus.APPROVED);
+        register(2L, 1L, start.plusDays(5), start.plusDays(6), BookingStatus.WAITING);
+
+        assertTrue(index.hasApprovedOverlap(1L, start.plusDays(1), start.plusDays(3), null));
+        assertTrue(index.hasApprovedOverlap(1L, start.minusDays(1), start.plusHours(1), null));
+        assertFalse(index.hasApprovedOverlap(1L, start.plusDays(2), start.plusDays(3), null));
+        assertFalse(index.hasApprovedOverlap(1L, start.minusDays(1), start, null));
+        assertFalse(index.hasApprovedOverlap(1L, start, start.plusDays(1), 1L));
+        assertFalse(index.hasApprovedOverlap(1L, start.plusDays(5), start.plusDays(6), null));
+        assertFalse(index.hasApprovedOverlap(2L, start, start.plusDays(2), null));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void shouldMoveBookingBetweenStatuses() {
+        register(1L, 1L, start, start.plusDays(2), BookingStatus.WAITING);
+        assertFalse(index.hasApprovedOverlap(1L, start, start.plusDays(1), null));
+        assertEquals(0, index.size());
+
+        register(1L, 1L, start, start.plusDays(2), BookingStatus.APPROVED);
+        assertTrue(index.hasApprovedOverlap(1L, start, start.plusDays(1), null));
+        assertEquals(1, index.size());
+
+        register(1L, 1L, start, start.plusDays(2), BookingStatus.REJECTED);
+        assertFalse(index.hasApprovedOverlap(1L, start, start.plusDays(1), null));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void probesShouldNotAddItemsAndEndedBookingsShouldBeDropped() {
+        LocalDateTime now = LocalDateTime.now();
+        register(1L, 1L, now.minusHours(2), now.minusHours(1), BookingStatus.APPROVED);
+        register(2L, 1L, start, start.plusDays(1), BookingStatus.APPROVED);
+        register(3L, 2L, now.minusHours(2), now.minusHours(1), BookingStatus.APPROVED);
+
+        assertFalse(index.withItemLock(3L, () -> index.hasApprovedOverlap(3L, start, start.plusDays(1), null)));
+        assertFalse(index.withItemLock(4L, () -> index.hasApprovedOverlap(4L, start, start.plusDays(1), null)));
+        assertEquals(2, index.itemCount());
+
+        index.onBookingsEnded(new BookingTransitionEvent(BookingTransition.STARTED, List.of(1L, 3L)));
+        assertEquals(3, index.size());
+        index.onBookingsEnded(new BookingTransitionEvent(BookingTransition.ENDED, List.of(1L, 2L, 3L)));
+        assertEquals(1, index.size());
+        assertEquals(1, index.itemCount());
+        assertTrue(index.withItemLock(1L, () -> index.hasApprovedOverlap(1L, start, start.plusDays(1), null)));
+    }
+
+    @Test
+    void locksOfDifferentItemsShouldNotContend() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            for (long itemId = 2; itemId <= 4096; itemId++) {
+                long otherItemId = itemId;
+                Boolean locked = index.withItemLock(1L, () -> {
+                    try {
+                        return executor.submit(() -> index.withItemLock(otherItemId, () -> true))
+                                .get(5, TimeUnit.SECONDS);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+                assertTrue(locked);
+            }
+            Future<Boolean> waiting = index.withItemLock(1L, () -> {
+                Future<Boolean> sameItem = executor.submit(() -> index.withItemLock(1L, () -> true));
+                assertThrows(TimeoutException.class, () -> sameItem.get(100, TimeUnit.MILLISECONDS));
+                return sameItem;
+            });
+            assertTrue(waiting.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void register(Long bookingId, Long itemId, LocalDateTime from, LocalDateTime to, BookingStatus status) {
+        Item item = new Item(itemId, "Item", "Item desc", true, 1L, null);
+        index.withItemLock(itemId, () -> {
+            index.register(new Booking(bookingId, item, status, null, from, to));
+            return null;
+        });
+    }
+}
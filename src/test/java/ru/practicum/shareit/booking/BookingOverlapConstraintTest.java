@@ -0,0 +1,113 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/**
+ * Checks the bookings_approved_no_overlap exclusion constraint itself: two transactions approve overlapping
+ * bookings with plain SQL, past the services and BookingIntervalIndex. H2 has no exclusion constraints, so the
+ * test runs only against PostgreSQL:
+ * {@code mvn test -Dtest=BookingOverlapConstraintTest -Dshareit.test.postgres-url=jdbc:postgresql://localhost/shareit}
+ * ({@code shareit.test.postgres-user} and {@code shareit.test.postgres-password} default to postgres).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.driverClassName=org.postgresql.Driver",
+        "spring.datasource.url=${shareit.test.postgres-url}",
+        "spring.datasource.username=${shareit.test.postgres-user:postgres}",
+        "spring.datasource.password=${shareit.test.postgres-password:postgres}",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQL10Dialect",
+        "spring.sql.init.platform=postgresql"})
+@EnabledIfSystemProperty(named = "shareit.test.postgres-url", matches = ".+")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingOverlapConstraintTest {
+    private static final long HOLD_MS = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE 'overlap-constraint-%'");
+    }
+
+    @Test
+    void concurrentApprovalsOfOverlappingBookingsShouldNotBothCommit() throws Exception {
+        Long ownerId = insertUser("overlap-constraint-owner@mail.com");
+        Long bookerId = insertUser("overlap-constraint-booker@mail.com");
+        jdbcTemplate.update("INSERT INTO items (name, description, available, owner_id) VALUES (?, ?, TRUE, ?)",
+                "Item", "Item desc", ownerId);
+        Long itemId = jdbcTemplate.queryForObject("SELECT id FROM items WHERE owner_id = ?", Long.class, ownerId);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Long> bookingIds = List.of(
+                insertWaitingBooking(itemId, bookerId, start, start.plusDays(2)),
+                insertWaitingBooking(itemId, bookerId, start.plusDays(1), start.plusDays(3)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(bookingIds.size());
+        CountDownLatch startSignal = new CountDownLatch(1);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long bookingId : bookingIds) {
+            futures.add(executor.submit(() -> {
+                startSignal.await();
+                // the transaction stays open, so that the other approval runs into the uncommitted one
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.update("UPDATE bookings SET status = 'APPROVED' WHERE id = ?", bookingId);
+                    sleep();
+                });
+                return null;
+            }));
+        }
+        startSignal.countDown();
+        List<Throwable> failures = new ArrayList<>();
+        for (Future<?> future : futures) {
+            try {
+                future.get(30, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                failures.add(e.getCause());
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, failures.size());
+        assertInstanceOf(DataIntegrityViolationException.class, failures.get(0));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings " +
+                "WHERE item_id = ? AND status = 'APPROVED'", Integer.class, itemId));
+    }
+
+    private Long insertUser(String email) {
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES (?, ?)", email, email);
+        return jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, email);
+    }
+
+    private Long insertWaitingBooking(Long itemId, Long bookerId, LocalDateTime start, LocalDateTime end) {
+        jdbcTemplate.update("INSERT INTO bookings (item_id, status, booker_id, date_start, date_end) " +
+                "VALUES (?, 'WAITING', ?, ?, ?)", itemId, bookerId, Timestamp.valueOf(start), Timestamp.valueOf(end));
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM bookings WHERE item_id = ?", Long.class, itemId);
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(HOLD_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
@@ -11,16 +12,25 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStateCountDto;
 import ru.practicum.shareit.booking.dto.create.CreateBookingDto;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.PageCursor;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
@@ -38,11 +48,14 @@ public class BookingServiceGetForTest {
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
     private final BookingService bookingService;
+    private final ItemService itemService;
+    private final UserService userService;
 
     private User booker;
     private User owner1;
     private User owner2;
     private User userWithoutBookings;
+    private Item itemByOwner1;
     private BookingDto pastBooking;
     private BookingDto futureBooking;
     private BookingDto currentBooking;
@@ -54,7 +67,7 @@ public class BookingServiceGetForTest {
         booker = userRepository.save(new User(null, "User", "user@mail.com"));
         owner1 = userRepository.save(new User(null, "Owner1", "owner1@mail.com"));
         owner2 = userRepository.save(new User(null, "Owner2", "owner2@mail.com"));
-        Item itemByOwner1 = itemRepository.save(new Item(null, "Item", "Item desc", true, owner1.getId(), null));
+        itemByOwner1 = itemRepository.save(new Item(null, "Item", "Item desc", true, owner1.getId(), null));
         Item itemByOwner2 = itemRepository.save(new Item(null, "Item", "Item desc", true, owner2.getId(), null));
 
         pastBooking = bookingService.createBooking(booker.getId(), new CreateBookingDto(null, itemByOwner1.getId(), null, LocalDateTime.now().minusYears(1), LocalDateTime.now().minusYears(1).plusDays(1)));
@@ -122,4 +135,57 @@ public class BookingServiceGetForTest {
                 Arguments.of(owner2.getId(), BookingState.REJECTED, List.of(futureRejectedBooking))
         );
     }
+
+    @Test
+    void keysetPagesShouldMatchOffsetPages() {
+        List<Long> offsetIds = bookingService.getBookingsForUser(booker.getId(), BookingState.ALL, 0, 10).stream()
+                .map(BookingDto::getId).collect(Collectors.toList());
+        List<Long> keysetIds = new ArrayList<>();
+        PageCursor cursor = null;
+        while (true) {
+            Collection<BookingDto> page = bookingService.getBookingsForUser(booker.getId(), BookingState.ALL, cursor, 1);
+            if (page.isEmpty()) {
+                break;
+            }
+            BookingDto last = page.iterator().next();
+            keysetIds.add(last.getId());
+            cursor = new PageCursor(last.getStart(), last.getId());
+        }
+        assertEquals(offsetIds, keysetIds);
+
+        BookingDto first = bookingService.getBookingsForItemOwner(owner1.getId(), BookingState.ALL, null, 1).iterator().next();
+        List<Long> ownerRest = bookingService.getBookingsForItemOwner(owner1.getId(), BookingState.ALL,
+                        PageCursor.decode(new PageCursor(first.getStart(), first.getId()).encode()), 10).stream()
+                .map(BookingDto::getId).collect(Collectors.toList());
+        assertEquals(List.of(currentBooking.getId(), pastBooking.getId()), ownerRest);
+    }
+
+    @Test
+    void countsShouldMatchListSizesForEveryState() {
+        BookingStateCountDto userCounts = bookingService.countBookingsForUser(booker.getId());
+        assertEquals(new BookingStateCountDto(4L, 1L, 1L, 2L, 1L, 1L), userCounts);
+
+        BookingStateCountDto ownerCounts = bookingService.countBookingsForItemOwner(owner1.getId());
+        assertEquals(new BookingStateCountDto(3L, 1L, 1L, 1L, 1L, 0L), ownerCounts);
+
+        BookingStateCountDto emptyCounts = bookingService.countBookingsForUser(userWithoutBookings.getId());
+        assertEquals(new BookingStateCountDto(0L, 0L, 0L, 0L, 0L, 0L), emptyCounts);
+    }
+
+    @Test
+    void listsShouldFollowStatusItemAndBookerChanges() {
+        bookingService.updateBookingStatus(owner1.getId(), currentBooking.getId(), false);
+        itemService.update(ItemDto.builder().name("Renamed item").build(), itemByOwner1.getId(), owner1.getId());
+        userService.update(UserDto.builder().name("Renamed user").build(), booker.getId());
+
+        BookingDto listed = bookingService.getBookingsForItemOwner(owner1.getId(), BookingState.REJECTED, 0, 10)
+                .iterator().next();
+        assertEquals(currentBooking.getId(), listed.getId());
+        assertEquals(BookingStatus.REJECTED, listed.getStatus());
+        assertEquals("Renamed item", listed.getItem().getName());
+        assertEquals("Item desc", listed.getItem().getDescription());
+        assertEquals("Renamed user", listed.getBooker().getName());
+        assertEquals(booker.getEmail(), listed.getBooker().getEmail());
+        assertEquals(List.of(), bookingService.getBookingsForUser(booker.getId(), BookingState.WAITING, 0, 10));
+    }
 }
@@ -12,12 +12,21 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.create.CreateBookingDto;
+import ru.practicum.shareit.booking.dto.create.CreateBookingResultDto;
 import ru.practicum.shareit.booking.mapper.BookingMapperImpl;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCreationOutcome;
+import ru.practicum.shareit.booking.model.BookingDecisionOutcome;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingViewService;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.NoChangeStatusException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.UnavailableForBookingException;
@@ -28,7 +37,12 @@ import ru.practicum.shareit.user.mapper.UserMapperImpl;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.validation.ValidationException;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -45,6 +59,7 @@ public class BookingServiceImplTest {
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
     private final BookingService bookingService;
+    private final BookingViewService bookingViewService;
 
     private User booker;
     private User owner;
@@ -113,7 +128,7 @@ public class BookingServiceImplTest {
         BookingDto updatedBookingApproved = bookingService.updateBookingStatus(owner.getId(), bookingToApprove.getId(), true);
         assertThat(updatedBookingApproved.getStatus(), equalTo(BookingStatus.APPROVED));
 
-        BookingDto bookingToReject = bookingService.createBooking(booker.getId(), new CreateBookingDto(null, item.getId(),null, start, end));
+        BookingDto bookingToReject = bookingService.createBooking(booker.getId(), new CreateBookingDto(null, item.getId(),null, end, end.plusDays(1)));
         assertThat(bookingToReject.getStatus(), equalTo(BookingStatus.WAITING));
         BookingDto updatedBookingRejected = bookingService.updateBookingStatus(owner.getId(), bookingToReject.getId(), false);
         assertThat(updatedBookingRejected.getStatus(), equalTo(BookingStatus.REJECTED));
@@ -129,5 +144,158 @@ public class BookingServiceImplTest {
 
     }
 
+    @Test
+    void shouldNotCreateOrApproveBookingOverlappingApprovedBooking() {
+        Item otherItem = itemRepository.save(new Item(null, "Item", "Item desc", true, owner.getId(), null));
+        LocalDateTime start = LocalDateTime.now().plusDays(10);
+        LocalDateTime end = start.plusDays(2);
+
+        BookingDto waiting = bookingService.createBooking(otherUser.getId(), new CreateBookingDto(null, otherItem.getId(), null, start.plusDays(1), end.plusDays(1)));
+        BookingDto approved = bookingService.createBooking(booker.getId(), new CreateBookingDto(null, otherItem.getId(), null, start, end));
+        bookingService.updateBookingStatus(owner.getId(), approved.getId(), true);
+
+        assertThrows(BookingConflictException.class, () -> bookingService.createBooking(otherUser.getId(),
+                new CreateBookingDto(null, otherItem.getId(), null, start.minusDays(1), start.plusHours(1))));
+        // the overlapping request was rejected together with the approval
+        assertThrows(NoChangeStatusException.class, () -> bookingService.updateBookingStatus(owner.getId(), waiting.getId(), true));
+        Item currentItem = itemRepository.findById(otherItem.getId()).orElseThrow();
+        Booking bypassingIndex = bookingRepository.save(new Booking(null, currentItem, BookingStatus.WAITING, otherUser,
+                start.plusHours(1), end.minusHours(1)));
+        assertThrows(BookingConflictException.class, () -> bookingService.updateBookingStatus(owner.getId(), bypassingIndex.getId(), true));
+        BookingDto adjacent = bookingService.createBooking(otherUser.getId(), new CreateBookingDto(null, otherItem.getId(), null, end, end.plusDays(1)));
+        assertThat(adjacent.getStatus(), equalTo(BookingStatus.WAITING));
+        BookingDto otherItemBooking = bookingService.createBooking(otherUser.getId(), new CreateBookingDto(null, item.getId(), null, start, end));
+        assertThat(otherItemBooking.getStatus(), equalTo(BookingStatus.WAITING));
+    }
+
+    @Test
+    void approvalShouldRejectOverlappingWaitingBookingsOfTheSameItem() {
+        Item otherItem = itemRepository.save(new Item(null, "Item", "Item desc", true, owner.getId(), null));
+        LocalDateTime start = LocalDateTime.now().plusDays(10);
+        LocalDateTime end = start.plusDays(2);
+        BookingDto toApprove = bookingService.createBooking(booker.getId(), new CreateBookingDto(null, otherItem.getId(), null, start, end));
+        BookingDto inside = bookingService.createBooking(otherUser.getId(), new CreateBookingDto(null, otherItem.getId(), null, start.plusHours(1), end.minusHours(1)));
+        BookingDto crossing = bookingService.createBooking(otherUser.getId(), new CreateBookingDto(null, otherItem.getId(), null, start.minusDays(1), start.plusHours(1)));
+        BookingDto adjacent = bookingService.createBooking(otherUser.getId(), new CreateBookingDto(null, otherItem.getId(), null, end, end.plusDays(1)));
+        BookingDto otherItemBooking = bookingService.createBooking(otherUser.getId(), new CreateBookingDto(null, item.getId(), null, start, end));
+        Item currentItem = itemRepository.findById(otherItem.getId()).orElseThrow();
+        Booking bypassingIndex = bookingRepository.save(new Booking(null, currentItem, BookingStatus.WAITING, otherUser,
+                start.plusHours(2), end.minusHours(2)));
+
+        BookingDto approved = bookingService.updateBookingStatus(owner.getId(), toApprove.getId(), true);
+
+        assertThat(approved.getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(approved.getAutoRejected(), equalTo(3));
+        assertThat(bookingRepository.findById(bypassingIndex.getId()).orElseThrow().getStatus(), equalTo(BookingStatus.REJECTED));
+        assertThat(bookingService.getBooking(owner.getId(), inside.getId()).getStatus(), equalTo(BookingStatus.REJECTED));
+        assertThat(bookingService.getBooking(owner.getId(), crossing.getId()).getStatus(), equalTo(BookingStatus.REJECTED));
+        assertThat(bookingService.getBooking(owner.getId(), adjacent.getId()).getStatus(), equalTo(BookingStatus.WAITING));
+        assertThat(bookingService.getBooking(owner.getId(), otherItemBooking.getId()).getStatus(), equalTo(BookingStatus.WAITING));
+        assertThat(bookingService.updateBookingStatus(owner.getId(), adjacent.getId(), false).getAutoRejected(), equalTo(null));
+    }
+
+    @Test
+    void batchDecisionsShouldReportResultPerBooking() {
+        Item otherItem = itemRepository.save(new Item(null, "Item", "Item desc", true, owner.getId(), null));
+        Item foreignItem = itemRepository.save(new Item(null, "Item", "Item desc", true, otherUser.getId(), null));
+        LocalDateTime start = LocalDateTime.now().plusDays(30);
+        LocalDateTime end = start.plusDays(2);
+        BookingDto first = bookingService.createBooking(booker.getId(), new CreateBookingDto(null, otherItem.getId(), null, start, end));
+        BookingDto overlapping = bookingService.createBooking(otherUser.getId(), new CreateBookingDto(null, otherItem.getId(), null, start.plusHours(1), end.plusHours(1)));
+        BookingDto adjacent = bookingService.createBooking(otherUser.getId(), new CreateBookingDto(null, otherItem.getId(), null, end.plusHours(1), end.plusDays(1)));
+        BookingDto onOtherItem = bookingService.createBooking(booker.getId(), new CreateBookingDto(null, item.getId(), null, start, end));
+        BookingDto decided = bookingService.createBooking(booker.getId(), new CreateBookingDto(null, item.getId(), null, end.plusDays(5), end.plusDays(6)));
+        bookingService.updateBookingStatus(owner.getId(), decided.getId(), false);
+        BookingDto foreign = bookingService.createBooking(booker.getId(), new CreateBookingDto(null, foreignItem.getId(), null, start, end));
+
+        List<BookingDecisionResultDto> results = bookingService.updateBookingStatuses(owner.getId(), List.of(
+                new BookingDecisionDto(overlapping.getId(), true),
+                new BookingDecisionDto(first.getId(), true),
+                new BookingDecisionDto(adjacent.getId(), false),
+                new BookingDecisionDto(onOtherItem.getId(), true),
+                new BookingDecisionDto(decided.getId(), true),
+                new BookingDecisionDto(foreign.getId(), true),
+                new BookingDecisionDto(-1L, false)));
+
+        assertThat(results.stream().map(BookingDecisionResultDto::getBookingId).collect(Collectors.toList()),
+                equalTo(List.of(overlapping.getId(), first.getId(), adjacent.getId(), onOtherItem.getId(),
+                        decided.getId(), foreign.getId(), -1L)));
+        assertThat(results.get(0).getOutcome(), equalTo(BookingDecisionOutcome.CONFLICT));
+        assertThat(results.get(0).getStatus(), equalTo(BookingStatus.REJECTED));
+        assertThat(results.get(1).getOutcome(), equalTo(BookingDecisionOutcome.UPDATED));
+        assertThat(results.get(1).getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(results.get(1).getAutoRejected(), equalTo(1));
+        assertThat(results.get(2).getStatus(), equalTo(BookingStatus.REJECTED));
+        assertThat(results.get(3).getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(results.get(4).getOutcome(), equalTo(BookingDecisionOutcome.NOT_WAITING));
+        assertThat(results.get(5).getOutcome(), equalTo(BookingDecisionOutcome.NOT_FOUND));
+        assertThat(results.get(6).getOutcome(), equalTo(BookingDecisionOutcome.NOT_FOUND));
+        assertThat(bookingService.getBooking(owner.getId(), first.getId()).getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(bookingService.getBooking(owner.getId(), adjacent.getId()).getStatus(), equalTo(BookingStatus.REJECTED));
+        assertThat(bookingService.getBooking(owner.getId(), onOtherItem.getId()).getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(bookingService.getBooking(otherUser.getId(), foreign.getId()).getStatus(), equalTo(BookingStatus.WAITING));
+        assertThrows(BookingConflictException.class, () -> bookingService.createBooking(otherUser.getId(),
+                new CreateBookingDto(null, otherItem.getId(), null, start.plusHours(2), end.minusHours(2))));
+        assertThrows(ValidationException.class, () -> bookingService.updateBookingStatuses(owner.getId(), List.of(
+                new BookingDecisionDto(adjacent.getId(), true), new BookingDecisionDto(adjacent.getId(), false))));
+    }
+
+    @Test
+    void batchCreationShouldReportResultPerEntry() {
+        Item otherItem = itemRepository.save(new Item(null, "Item", "Item desc", true, otherUser.getId(), null));
+        Item notAvailableItem = itemRepository.save(new Item(null, "Item", "Item desc", false, otherUser.getId(), null));
+        Item ownItem = itemRepository.save(new Item(null, "Item", "Item desc", true, booker.getId(), null));
+        LocalDateTime start = LocalDateTime.now().plusDays(40);
+        LocalDateTime end = start.plusDays(2);
+        BookingDto approved = bookingService.createBooking(otherUser.getId(), new CreateBookingDto(null, item.getId(), null, start, end));
+        bookingService.updateBookingStatus(owner.getId(), approved.getId(), true);
+
+        List<CreateBookingResultDto> results = bookingService.createBookings(booker.getId(), List.of(
+                new CreateBookingDto(null, otherItem.getId(), null, start, end),
+                new CreateBookingDto(null, otherItem.getId(), null, start.plusHours(1), end),
+                new CreateBookingDto(null, item.getId(), null, start.plusHours(1), end.plusDays(1)),
+                new CreateBookingDto(null, item.getId(), null, end, end.plusDays(1)),
+                new CreateBookingDto(null, notAvailableItem.getId(), null, start, end),
+                new CreateBookingDto(null, ownItem.getId(), null, start, end),
+                new CreateBookingDto(null, -1L, null, start, end)));
+
+        assertThat(results.stream().map(CreateBookingResultDto::getOutcome).collect(Collectors.toList()), equalTo(List.of(
+                BookingCreationOutcome.CREATED, BookingCreationOutcome.CREATED, BookingCreationOutcome.CONFLICT,
+                BookingCreationOutcome.CREATED, BookingCreationOutcome.UNAVAILABLE, BookingCreationOutcome.NOT_FOUND,
+                BookingCreationOutcome.NOT_FOUND)));
+        for (int i : new int[]{0, 1, 3}) {
+            BookingDto created = results.get(i).getBooking();
+            assertThat(bookingService.getBooking(booker.getId(), created.getId()), equalTo(created));
+            assertThat(created.getStatus(), equalTo(BookingStatus.WAITING));
+            assertThat(created.getBooker().getId(), equalTo(booker.getId()));
+        }
+        assertThat(results.get(3).getBooking().getStart(), equalTo(end.truncatedTo(ChronoUnit.MICROS)));
+        assertThat(bookingService.updateBookingStatus(otherUser.getId(), results.get(0).getBooking().getId(), true)
+                .getAutoRejected(), equalTo(1));
+    }
 
+    @Test
+    void exportShouldPassEveryBookingOfTheOwnerNewestFirst() {
+        LocalDateTime start = LocalDateTime.now().plusDays(100).truncatedTo(ChronoUnit.MICROS);
+        int count = BookingRepository.EXPORT_FETCH_SIZE + 10;
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(bookingRepository.save(new Booking(null, item, BookingStatus.WAITING, booker, start.plusHours(i),
+                    start.plusHours(i).plusMinutes(30))).getId());
+        }
+        bookingViewService.add(ids);
+        List<BookingDto> expected = bookingService.getBookingsForItemOwner(owner.getId(), BookingState.ALL, 0,
+                10_000).stream().collect(Collectors.toList());
+
+        List<BookingDto> exported = new ArrayList<>();
+        bookingService.exportBookingsForItemOwner(owner.getId(), exported::add);
+
+        assertThat(exported.size(), equalTo(expected.size()));
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(exported.get(i).getId(), equalTo(expected.get(i).getId()));
+            assertThat(exported.get(i).getStart(), equalTo(expected.get(i).getStart()));
+            assertThat(exported.get(i).getItem().getName(), equalTo(item.getName()));
+        }
+        assertThrows(NotFoundException.class, () -> bookingService.exportBookingsForItemOwner(-1L, exported::add));
+    }
 }
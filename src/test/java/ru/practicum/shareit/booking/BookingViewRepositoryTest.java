@@ -0,0 +1,228 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingViewRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utils.Pagination;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+
+@DataJpaTest
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingViewRepositoryTest {
+    private final BookingRepository bookingRepository;
+    private final BookingViewRepository bookingViewRepository;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final EntityManager entityManager;
+
+    private User booker1;
+    private User booker2;
+    private User owner1;
+    private User owner2;
+    private LocalDateTime now;
+    private Booking booking2;
+    private Booking booking4;
+    private Booking booking5;
+    private Booking booking7;
+
+    @BeforeEach
+    void setUp() {
+        booker1 = new User(null, "Booker 1", "booker1@mail.com");
+        booker2 = new User(null, "Booker 2", "booker2@mail.com");
+        owner1 = new User(null, "Owner 1", "owner1@mail.com");
+        owner2 = new User(null, "Owner 2", "owner2@mail.com");
+        userRepository.saveAll(List.of(booker1, booker2, owner1, owner2));
+
+        Item item1 = new Item(null, "Item 1", "Item 1 desc", true, owner1.getId(), null);
+        Item item2 = new Item(null, "Item 2", "Item 2 desc", true, owner2.getId(), null);
+        itemRepository.saveAll(List.of(item1, item2));
+
+        now = LocalDateTime.of(2010, 1, 1, 10, 0);
+        Booking booking1 = new Booking(null, item1, BookingStatus.APPROVED, booker1, now.minusYears(2), now.minusYears(2).plusDays(1));
+        booking2 = new Booking(null, item2, BookingStatus.APPROVED, booker1, now.minusYears(4), now.minusYears(4).plusDays(1));
+        Booking booking3 = new Booking(null, item1, BookingStatus.APPROVED, booker1, now.minusYears(1), now.minusYears(1).plusDays(1));
+        booking4 = new Booking(null, item1, BookingStatus.REJECTED, booker1, now.plusYears(3), now.plusYears(3).plusDays(1));
+        booking5 = new Booking(null, item2, BookingStatus.WAITING, booker1, now.plusYears(2), now.plusYears(2).plusDays(1));
+        Booking booking6 = new Booking(null, item1, BookingStatus.APPROVED, booker1, now.plusYears(5), now.plusYears(5).plusDays(1));
+        booking7 = new Booking(null, item1, BookingStatus.APPROVED, booker2, now.plusYears(6), now.plusYears(6).plusDays(1));
+        bookingRepository.saveAll(List.of(booking1, booking2, booking3, booking4, booking5, booking6, booking7));
+        bookingViewRepository.insertForBookings(List.of(booking1.getId(), booking2.getId(), booking3.getId(),
+                booking4.getId(), booking5.getId(), booking6.getId(), booking7.getId()));
+    }
+
+    @Test
+    void findBookingsForUserAllWithValidParametersReturnsAnswer() {
+        Pageable page = Pagination.getPage(0, 10);
+        final List<BookingDto> bookingsBooker1 = bookingViewRepository.findBookingsForUserAll(booker1.getId(), page);
+        assertThat(bookingsBooker1, hasSize(6));
+        final List<BookingDto> bookingsBooker2 = bookingViewRepository.findBookingsForUserAll(booker2.getId(), page);
+        assertThat(bookingsBooker2, hasSize(1));
+        BookingDto booking = bookingsBooker2.get(0);
+        assertThat(booking.getItem().getName(), equalTo("Item 1"));
+        assertThat(booking.getItem().getDescription(), equalTo("Item 1 desc"));
+        assertThat(booking.getBooker().getId(), equalTo(booker2.getId()));
+        assertThat(booking.getBooker().getEmail(), equalTo("booker2@mail.com"));
+        assertThat(booking.getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(booking.getAutoRejected(), equalTo(null));
+    }
+
+    @Test
+    void findBookingsForUserFutureWithValidParametersReturnsAnswer() {
+        Pageable page = Pagination.getPage(0, 10);
+        final List<BookingDto> bookingsBooker1 = bookingViewRepository.findBookingsForUserFuture(booker1.getId(), now, page);
+        assertThat(bookingsBooker1, hasSize(3));
+        final List<BookingDto> bookingsBooker2 = bookingViewRepository.findBookingsForUserFuture(booker2.getId(), now, page);
+        assertThat(bookingsBooker2, hasSize(1));
+    }
+
+    @Test
+    void findBookingsForUserPastWithValidParametersReturnsAnswer() {
+        Pageable page = Pagination.getPage(0, 10);
+        final List<BookingDto> bookingsBooker1 = bookingViewRepository.findBookingsForUserPast(booker1.getId(), now, page);
+        assertThat(bookingsBooker1, hasSize(3));
+        final List<BookingDto> bookingsBooker2 = bookingViewRepository.findBookingsForUserPast(booker2.getId(), now, page);
+        assertThat(bookingsBooker2, hasSize(0));
+    }
+
+    @Test
+    void findBookingsForUserCurrentWithValidParametersReturnsAnswer() {
+        Pageable page = Pagination.getPage(0, 10);
+        LocalDateTime dateTime = booking4.getStart().plusSeconds(1);
+        final List<BookingDto> bookingsBooker1 = bookingViewRepository.findBookingsForUserCurrent(booker1.getId(), dateTime, page);
+        assertThat(bookingsBooker1, hasSize(1));
+        assertThat(ids(bookingsBooker1), contains(booking4.getId()));
+        final List<BookingDto> bookingsBooker2 = bookingViewRepository.findBookingsForUserCurrent(booker2.getId(), dateTime, page);
+        assertThat(bookingsBooker2, hasSize(0));
+    }
+
+    @Test
+    void findBookingsForUserByStatusWithValidParametersReturnsAnswer() {
+        Pageable page = Pagination.getPage(0, 10);
+        final List<BookingDto> bookingsBooker1 = bookingViewRepository.findBookingsForUserByStatus(booker1.getId(), BookingStatus.APPROVED, page);
+        assertThat(bookingsBooker1, hasSize(4));
+        final List<BookingDto> bookingsBooker1NotFound = bookingViewRepository.findBookingsForUserByStatus(booker1.getId(), BookingStatus.REJECTED, page);
+        assertThat(bookingsBooker1NotFound, hasSize(1));
+        final List<BookingDto> bookingsBooker2 = bookingViewRepository.findBookingsForUserByStatus(booker2.getId(), BookingStatus.APPROVED, page);
+        assertThat(bookingsBooker2, hasSize(1));
+    }
+
+    @Test
+    void findBookingsForItemOwnerAllWithValidParametersReturnsAnswer() {
+        Pageable page = Pagination.getPage(0, 10);
+        final List<BookingDto> bookingsOwner1 = bookingViewRepository.findBookingsForItemOwnerAll(owner1.getId(), page);
+        assertThat(bookingsOwner1, hasSize(5));
+        final List<BookingDto> bookingsOwner2 = bookingViewRepository.findBookingsForItemOwnerAll(owner2.getId(), page);
+        assertThat(bookingsOwner2, hasSize(2));
+    }
+
+    @Test
+    void findBookingsForItemOwnerFutureWithValidParametersReturnsAnswer() {
+        Pageable page = Pagination.getPage(0, 10);
+        final List<BookingDto> bookingsOwner1 = bookingViewRepository.findBookingsForItemOwnerFuture(owner1.getId(), now, page);
+        assertThat(bookingsOwner1, hasSize(3));
+        final List<BookingDto> bookingsOwner2 = bookingViewRepository.findBookingsForItemOwnerFuture(owner2.getId(), now, page);
+        assertThat(bookingsOwner2, hasSize(1));
+        assertThat(ids(bookingsOwner2), contains(booking5.getId()));
+    }
+
+    @Test
+    void findBookingsForItemOwnerPastWithValidParametersReturnsAnswer() {
+        Pageable page = Pagination.getPage(0, 10);
+        final List<BookingDto> bookingsOwner1 = bookingViewRepository.findBookingsForItemOwnerPast(owner1.getId(), now, page);
+        assertThat(bookingsOwner1, hasSize(2));
+        final List<BookingDto> bookingsOwner2 = bookingViewRepository.findBookingsForItemOwnerPast(owner2.getId(), now, page);
+        assertThat(bookingsOwner2, hasSize(1));
+        assertThat(ids(bookingsOwner2), contains(booking2.getId()));
+    }
+
+    @Test
+    void findBookingsForItemOwnerCurrentWithValidParametersReturnsAnswer() {
+        Pageable page = Pagination.getPage(0, 10);
+        LocalDateTime dateTime = booking5.getStart().plusSeconds(1);
+        final List<BookingDto> bookingsOwner1 = bookingViewRepository.findBookingsForItemOwnerCurrent(owner1.getId(), dateTime, page);
+        assertThat(bookingsOwner1, hasSize(0));
+        final List<BookingDto> bookingsOwner2 = bookingViewRepository.findBookingsForItemOwnerCurrent(owner2.getId(), dateTime, page);
+        assertThat(bookingsOwner2, hasSize(1));
+        assertThat(ids(bookingsOwner2), contains(booking5.getId()));
+    }
+
+    @Test
+    void findBookingsForItemOwnerStatusWithValidParametersReturnsAnswer() {
+        Pageable page = Pagination.getPage(0, 10);
+        final List<BookingDto> bookingsOwner1 = bookingViewRepository.findBookingsForItemOwnerStatus(owner1.getId(), BookingStatus.APPROVED, page);
+        assertThat(bookingsOwner1, hasSize(4));
+        final List<BookingDto> bookingsOwner1NotFound = bookingViewRepository.findBookingsForItemOwnerStatus(owner1.getId(), BookingStatus.WAITING, page);
+        assertThat(bookingsOwner1NotFound, hasSize(0));
+        final List<BookingDto> bookingsOwner2 = bookingViewRepository.findBookingsForItemOwnerStatus(owner2.getId(), BookingStatus.APPROVED, page);
+        assertThat(bookingsOwner2, hasSize(1));
+        assertThat(ids(bookingsOwner2), contains(booking2.getId()));
+    }
+
+    @Test
+    void keysetPageShouldContinueAmongBookingsWithTheCursorStart() {
+        Item item = itemRepository.findAll().get(0);
+        LocalDateTime start = now.plusYears(7);
+        List<Booking> tied = bookingRepository.saveAll(List.of(
+                new Booking(null, item, BookingStatus.APPROVED, booker2, start, start.plusDays(1)),
+                new Booking(null, item, BookingStatus.APPROVED, booker2, start, start.plusDays(2)),
+                new Booking(null, item, BookingStatus.APPROVED, booker2, start, start.plusDays(3))));
+        bookingViewRepository.insertForBookings(tied.stream().map(Booking::getId).collect(Collectors.toList()));
+
+        final List<BookingDto> page = bookingViewRepository.findBookingsForUserAllAfter(booker2.getId(), start,
+                tied.get(2).getId(), Pagination.getLimit(10));
+        assertThat(ids(page), contains(tied.get(1).getId(), tied.get(0).getId(), booking7.getId()));
+    }
+
+    @Test
+    void statementsShouldCopyChangesIntoTheView() {
+        booking5.setStatus(BookingStatus.REJECTED);
+        booking4.setStatus(BookingStatus.EXPIRED);
+        bookingViewRepository.copyStatus(List.of(booking5.getId()));
+        assertThat(view(booking5).getStatus(),
+                equalTo(BookingStatus.REJECTED));
+        assertThat(view(booking4).getStatus(),
+                equalTo(BookingStatus.REJECTED));
+
+        bookingViewRepository.updateItem(booking2.getItem().getId(), "Renamed", "New desc", false, null);
+        bookingViewRepository.updateBooker(booker1.getId(), "Booker", "booker-renamed@mail.com");
+        BookingView view = view(booking2);
+        assertThat(view.getItemName(), equalTo("Renamed"));
+        assertThat(view.getItemDescription(), equalTo("New desc"));
+        assertThat(view.getItemAvailable(), equalTo(false));
+        assertThat(view.getBookerEmail(), equalTo("booker-renamed@mail.com"));
+        assertThat(view.getOwnerId(), equalTo(owner2.getId()));
+    }
+
+    private BookingView view(Booking booking) {
+        entityManager.clear();
+        return bookingViewRepository.findById(booking.getId()).orElseThrow();
+    }
+
+    private static List<Long> ids(List<BookingDto> bookings) {
+        return bookings.stream().map(BookingDto::getId).collect(Collectors.toList());
+    }
+}
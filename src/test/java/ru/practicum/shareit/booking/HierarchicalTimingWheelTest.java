@@ -0,0 +1,67 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.timer.HierarchicalTimingWheel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class HierarchicalTimingWheelTest {
+    private static final long START = 1_000_000L;
+
+    @Test
+    void shouldExpireTimersExactlyAtTheirDeadlineOnEveryLevel() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(START);
+        long[] delays = {1, 63, 64, 65, 4095, 4096, 4097, 262_143, 262_144, 16_777_216};
+        for (long delay : delays) {
+            wheel.schedule(START + delay, delay);
+        }
+        wheel.schedule(START - 10, -1);
+
+        List<Long> expired = new ArrayList<>();
+        wheel.advanceTo(START + 1, expired::add);
+        assertEquals(List.of(-1L, 1L), expired);
+
+        for (long delay : delays) {
+            if (delay == 1) {
+                continue;
+            }
+            expired.clear();
+            wheel.advanceTo(START + delay - 1, expired::add);
+            assertEquals(List.of(), expired, "раньше срока: " + delay);
+            wheel.advanceTo(START + delay, expired::add);
+            assertEquals(List.of(delay), expired);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void shouldExpireMillionTimersEachOnItsOwnTick() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(START);
+        Random random = new Random(42);
+        int timers = 1_000_000;
+        for (int i = 0; i < timers; i++) {
+            long deadline = START + 1 + random.nextInt(500_000);
+            wheel.schedule(deadline, deadline);
+        }
+        assertEquals(timers, wheel.size());
+
+        int[] expired = {0};
+        for (long tick = START + 1; tick <= START + 500_000; tick++) {
+            long current = tick;
+            wheel.advanceTo(tick, deadline -> {
+                assertEquals(current, deadline);
+                expired[0]++;
+            });
+            if (tick % 100_000 == 0) {
+                wheel.schedule(tick + 1, tick + 1);
+                timers++;
+            }
+        }
+        assertEquals(timers - 1, expired[0]);
+        assertEquals(1, wheel.size());
+    }
+}
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * Compares the DISTINCT ON last/next booking queries with the item_booking_summary read model for owner pages.
+ * Not part of the regular test run, start explicitly:
+ * {@code mvn test -Dtest=ItemBookingSummaryBenchmark -Dshareit.benchmark.bookings=1000000}
+ * <p>
+ * Every item gets the same number of APPROVED bookings, one day long and two days apart around now, so that
+ * the seed passes the overlap constraint of the bookings table.
+ */
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ItemBookingSummaryBenchmark {
+    private static final int BATCH_SIZE = 10_000;
+    private static final int ITEMS_PER_OWNER = 10;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingRepository bookingRepository;
+    private final ItemBookingSummaryService summaryService;
+
+    private final long bookings = Long.getLong("shareit.benchmark.bookings", 1_000_000L);
+    private final int items = Integer.getInteger("shareit.benchmark.items", 100_000);
+    private final int iterations = Integer.getInteger("shareit.benchmark.iterations", 2_000);
+    private final Random random = new Random(42);
+    private final List<Set<Long>> ownerPages = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        int owners = items / ITEMS_PER_OWNER;
+        batchInsert("INSERT INTO users (name, email) VALUES (?, ?)", owners,
+                i -> List.<Object[]>of(new Object[]{"Owner " + i, "bench-owner-" + i + "@mail.com"}));
+        Long firstOwnerId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users WHERE email LIKE 'bench-%'", Long.class);
+        batchInsert("INSERT INTO items (name, description, available, owner_id) VALUES (?, ?, TRUE, ?)", items,
+                i -> List.<Object[]>of(new Object[]{"Item " + i, "Item desc " + i, firstOwnerId + i / ITEMS_PER_OWNER}));
+        Long firstItemId = jdbcTemplate.queryForObject("SELECT MIN(i.id) FROM items i JOIN users u ON u.id = i.owner_id " +
+                "WHERE u.email LIKE 'bench-%'", Long.class);
+
+        LocalDateTime firstDay = LocalDateTime.now().minusDays(bookings / items);
+        batchInsert("INSERT INTO bookings (item_id, status, booker_id, date_start, date_end) VALUES (?, ?, ?, ?, ?)",
+                bookings, i -> {
+                    LocalDateTime start = firstDay.plusDays(2 * (i / items)).plusMinutes(random.nextInt(1_440));
+                    return List.<Object[]>of(new Object[]{firstItemId + i % items,
+                            BookingStatus.APPROVED.toString(), firstOwnerId + random.nextInt(owners),
+                            Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(1))});
+                });
+
+        for (int owner = 0; owner < owners; owner++) {
+            Set<Long> page = new HashSet<>();
+            for (int i = 0; i < ITEMS_PER_OWNER; i++) {
+                page.add(firstItemId + (long) owner * ITEMS_PER_OWNER + i);
+            }
+            ownerPages.add(page);
+            if (owner % 100 == 99 || owner == owners - 1) {
+                Set<Long> chunk = new HashSet<>();
+                ownerPages.subList(owner - owner % 100, owner + 1).forEach(chunk::addAll);
+                summaryService.refresh(chunk);
+            }
+        }
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE 'bench-%'");
+    }
+
+    @Test
+    void compareLastNextQueriesWithSummaryTable() {
+        String status = BookingStatus.APPROVED.toString();
+        long[] queries = measure(page -> transactionTemplate.executeWithoutResult(tx -> {
+            LocalDateTime now = LocalDateTime.now();
+            bookingRepository.findLastBookingWithStatus(page, now, status);
+            bookingRepository.findNextBookingWithStatus(page, now, status);
+        }));
+        long[] summary = measure(summaryService::getItemBookingSummaryMapping);
+        System.out.printf("bookings=%d items=%d iterations=%d%n", bookings, items, iterations);
+        System.out.printf("DISTINCT ON queries: avg=%dus p99=%dus%n", average(queries), percentile(queries, 0.99));
+        System.out.printf("summary table:       avg=%dus p99=%dus%n", average(summary), percentile(summary, 0.99));
+    }
+
+    private long[] measure(Consumer<Set<Long>> action) {
+        for (int i = 0; i < iterations / 10; i++) {
+            action.accept(ownerPages.get(random.nextInt(ownerPages.size())));
+        }
+        long[] timings = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            Set<Long> page = ownerPages.get(random.nextInt(ownerPages.size()));
+            long start = System.nanoTime();
+            action.accept(page);
+            timings[i] = (System.nanoTime() - start) / 1_000;
+        }
+        Arrays.sort(timings);
+        return timings;
+    }
+
+    private void batchInsert(String sql, long rows, LongFunction<List<Object[]>> row) {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (long i = 0; i < rows; i++) {
+            batch.addAll(row.apply(i));
+            if (batch.size() >= BATCH_SIZE || i == rows - 1) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private static long average(long[] timings) {
+        return (long) Arrays.stream(timings).average().orElse(0);
+    }
+
+    private static long percentile(long[] sortedTimings, double percentile) {
+        return sortedTimings[(int) Math.min(sortedTimings.length - 1, Math.floor(sortedTimings.length * percentile))];
+    }
+}
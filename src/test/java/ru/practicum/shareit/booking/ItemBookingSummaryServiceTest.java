@@ -0,0 +1,105 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.create.CreateBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.item.dto.AdvancedItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ItemBookingSummaryServiceTest {
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final ItemBookingSummaryService summaryService;
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Test
+    void approvalShouldUpdateSummaryUsedByItemViews() {
+        User owner = userRepository.save(new User(null, "Owner", "summary-owner@mail.com"));
+        User booker = userRepository.save(new User(null, "Booker", "summary-booker@mail.com"));
+        Item item = itemRepository.save(new Item(null, "Item", "Item desc", true, owner.getId(), null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        BookingDto booking = bookingService.createBooking(booker.getId(),
+                new CreateBookingDto(null, item.getId(), null, start, start.plusDays(1)));
+        assertTrue(summaryRepository.findById(item.getId()).isEmpty());
+        bookingService.updateBookingStatus(owner.getId(), booking.getId(), true);
+
+        ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertEquals(booking.getId(), summary.getNextBooking().getId());
+        assertNull(summary.getLastBooking());
+        assertEquals(booking.getStart(), summary.getValidUntil());
+
+        AdvancedItemDto ownerView = itemService.getById(item.getId(), owner.getId());
+        assertEquals(booking.getId(), ownerView.getNextBooking().getId());
+        AdvancedItemDto listView = itemService.getAllByOwner(owner.getId(), 0, 10).iterator().next();
+        assertEquals(booking.getId(), listView.getNextBooking().getId());
+        assertNull(itemService.getById(item.getId(), booker.getId()).getNextBooking());
+    }
+
+    @Test
+    void expiredSummaryShouldBeRecomputedOnReadAndRebuiltBySweep() {
+        User owner = userRepository.save(new User(null, "Owner", "summary-owner@mail.com"));
+        User booker = userRepository.save(new User(null, "Booker", "summary-booker@mail.com"));
+        Item item = itemRepository.save(new Item(null, "Item", "Item desc", true, owner.getId(), null));
+        LocalDateTime now = LocalDateTime.now();
+        Booking past = bookingRepository.save(new Booking(null, item, BookingStatus.APPROVED, booker,
+                now.minusDays(3), now.minusDays(2)));
+        Booking next = bookingRepository.save(new Booking(null, item, BookingStatus.APPROVED, booker,
+                now.plusDays(1), now.plusDays(2)));
+        summaryService.refresh(Set.of(item.getId()));
+
+        Map<Long, ItemBookingSummary> mapping = summaryService.getItemBookingSummaryMapping(Set.of(item.getId()));
+        assertEquals(past.getId(), mapping.get(item.getId()).getLastBooking().getId());
+        assertEquals(next.getId(), mapping.get(item.getId()).getNextBooking().getId());
+
+        // the next booking starts: it becomes the last one
+        next.setStart(now.minusHours(1));
+        bookingRepository.saveAndFlush(next);
+        summaryRepository.findById(item.getId()).orElseThrow().setValidUntil(now.minusHours(1));
+        summaryRepository.flush();
+
+        mapping = summaryService.getItemBookingSummaryMapping(Set.of(item.getId()));
+        assertEquals(next.getId(), mapping.get(item.getId()).getLastBooking().getId());
+        assertNull(mapping.get(item.getId()).getNextBooking());
+
+        Long version = itemVersion(item);
+        summaryService.refreshExpired();
+        assertEquals(version, itemVersion(item));
+        ItemBookingSummary rebuilt = summaryRepository.findById(item.getId()).orElseThrow();
+        assertEquals(next.getId(), rebuilt.getLastBooking().getId());
+        assertNull(rebuilt.getValidUntil());
+    }
+
+    private Long itemVersion(Item item) {
+        return jdbcTemplate.queryForObject("SELECT version FROM items WHERE id = ?", Long.class, item.getId());
+    }
+}
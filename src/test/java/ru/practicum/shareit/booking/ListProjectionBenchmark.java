@@ -0,0 +1,173 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.repository.BookingViewRepository;
+import ru.practicum.shareit.booking.service.BookingViewService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.utils.Pagination;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * JMH comparison of the list read paths, in bytes allocated per row ({@code gc.alloc.rate.norm}): a page of
+ * {@link BookingView} or {@link Item} entities mapped to DTOs, against the constructor-expression queries that
+ * select the DTOs directly. Every call reads one page in a read-only transaction, as the services do. Not part of
+ * the regular test run, start explicitly: {@code mvn test -Dtest=ListProjectionBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@OperationsPerInvocation(ListProjectionBenchmark.ROWS)
+public class ListProjectionBenchmark {
+    static final int ROWS = 100;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate readOnly;
+    private EntityManager entityManager;
+    private BookingViewRepository bookingViewRepository;
+    private ItemRepository itemRepository;
+    private ItemMapper itemMapper;
+    private Long ownerId;
+    private Long bookerId;
+    private final Pageable page = Pagination.getPage(0, ROWS);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .profiles("test")
+                .properties("server.port=0", "spring.jpa.show-sql=false",
+                        "logging.level.org.springframework.transaction.interceptor=INFO",
+                        "logging.level.org.springframework.orm.jpa.JpaTransactionManager=INFO")
+                .run();
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        bookingViewRepository = context.getBean(BookingViewRepository.class);
+        itemRepository = context.getBean(ItemRepository.class);
+        itemMapper = context.getBean(ItemMapper.class);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.getBean(JdbcTemplate.class).update("DELETE FROM users WHERE email LIKE 'bench-projection-%'");
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingDto> bookingEntities() {
+        return readOnly.execute(status -> entityManager.createQuery("SELECT v FROM BookingView v " +
+                        "WHERE v.bookerId = :bookerId ORDER BY v.start DESC, v.id DESC", BookingView.class)
+                .setParameter("bookerId", bookerId)
+                .setMaxResults(ROWS)
+                .getResultStream()
+                .map(ListProjectionBenchmark::toDto)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<BookingDto> bookingProjection() {
+        return readOnly.execute(status -> bookingViewRepository.findBookingsForUserAll(bookerId, page));
+    }
+
+    @Benchmark
+    public List<ItemDto> itemEntities() {
+        return readOnly.execute(status -> itemMapper.toListItemDto(entityManager.createQuery(
+                        "SELECT i FROM Item i WHERE i.ownerId = :ownerId", Item.class)
+                .setParameter("ownerId", ownerId)
+                .setMaxResults(ROWS)
+                .getResultList()));
+    }
+
+    @Benchmark
+    public List<ItemDto> itemProjection() {
+        return readOnly.execute(status -> itemRepository.findAllByOwnerId(ownerId, page));
+    }
+
+    @Test
+    void compareEntityAndProjectionAllocation() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ListProjectionBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .forks(0)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(2))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(2))
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+        Map<String, Double> bytesPerRow = results.stream().collect(Collectors.toMap(
+                result -> result.getParams().getBenchmark().substring(ListProjectionBenchmark.class.getName().length() + 1),
+                result -> result.getSecondaryResults().get("gc.alloc.rate.norm").getScore()));
+        bytesPerRow.forEach((benchmark, bytes) -> System.out.printf("%-20s %8.0f B/row%n", benchmark, bytes));
+        assertTrue(bytesPerRow.get("bookingProjection") < bytesPerRow.get("bookingEntities"));
+        assertTrue(bytesPerRow.get("itemProjection") < bytesPerRow.get("itemEntities"));
+    }
+
+    /**
+     * The entity-to-DTO mapping the list services used before the constructor-expression queries.
+     */
+    private static BookingDto toDto(BookingView view) {
+        return new BookingDto(view.getId(), view.getItemId(), view.getItemName(), view.getItemDescription(),
+                view.getItemAvailable(), view.getItemRequestId(), view.getBookerId(), view.getBookerName(),
+                view.getBookerEmail(), view.getStatus(), view.getStart(), view.getEnd());
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('Owner', 'bench-projection-owner@mail.com')");
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('Booker', 'bench-projection-booker@mail.com')");
+        ownerId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = 'bench-projection-owner@mail.com'",
+                Long.class);
+        bookerId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = 'bench-projection-booker@mail.com'",
+                Long.class);
+        List<Object[]> items = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            items.add(new Object[]{"Item " + i, "Item desc " + i, ownerId});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO items (name, description, available, owner_id) VALUES (?, ?, TRUE, ?)",
+                items);
+        List<Long> itemIds = jdbcTemplate.queryForList("SELECT id FROM items WHERE owner_id = ?", Long.class, ownerId);
+        List<Object[]> bookings = new ArrayList<>(ROWS);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (Long itemId : itemIds) {
+            bookings.add(new Object[]{itemId, bookerId, Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(1))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (item_id, status, booker_id, date_start, date_end) " +
+                "VALUES (?, 'APPROVED', ?, ?, ?)", bookings);
+        context.getBean(BookingViewService.class).add(jdbcTemplate.queryForList(
+                "SELECT id FROM bookings WHERE booker_id = ?", Long.class, bookerId));
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class IdempotencyFilterTest {
+    private static final String ITEM = "{\"name\":\"Item\",\"description\":\"Item desc\",\"available\":true}";
+
+    private final MockMvc mvc;
+
+    @MockBean
+    ItemService itemService;
+
+    @SpyBean
+    IdempotencyStore store;
+
+    @Test
+    void repeatedRequestWithTheSameKeyShouldGetTheStoredResponse() throws Exception {
+        when(itemService.add(any(), any())).thenReturn(new ItemDto(1L, "Item", "Item desc", true, null));
+        String key = UUID.randomUUID().toString();
+
+        MockHttpServletResponse first = createItem(1L, key, ITEM);
+        MockHttpServletResponse repeated = createItem(1L, key, ITEM);
+
+        assertEquals(200, first.getStatus());
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(200, repeated.getStatus());
+        assertEquals("true", repeated.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(first.getContentAsString(StandardCharsets.UTF_8),
+                repeated.getContentAsString(StandardCharsets.UTF_8));
+        verify(itemService, times(1)).add(any(), any());
+
+        assertEquals(422, createItem(1L, key, ITEM.replace("Item desc", "Other desc")).getStatus());
+        assertEquals(200, createItem(2L, key, ITEM).getStatus());
+        assertEquals(200, createItem(1L, null, ITEM).getStatus());
+        assertEquals(400, createItem(1L, " ", ITEM).getStatus());
+        verify(itemService, times(3)).add(any(), any());
+    }
+
+    @Test
+    void clientErrorsShouldBeStoredAndServerErrorsRunAgain() throws Exception {
+        when(itemService.add(any(), any())).thenThrow(new NotFoundException("Пользователь не найден"));
+        String key = UUID.randomUUID().toString();
+        assertEquals(404, createItem(1L, key, ITEM).getStatus());
+        assertEquals(404, createItem(1L, key, ITEM).getStatus());
+        verify(itemService, times(1)).add(any(), any());
+
+        reset(itemService);
+        when(itemService.add(any(), any())).thenThrow(new IllegalStateException("Сбой"));
+        key = UUID.randomUUID().toString();
+        assertEquals(500, createItem(1L, key, ITEM).getStatus());
+        assertEquals(500, createItem(1L, key, ITEM).getStatus());
+        verify(itemService, times(2)).add(any(), any());
+    }
+
+    @Test
+    void responseShouldBeKeptAndKeyStayClaimedWhenItCannotBeStored() throws Exception {
+        when(itemService.add(any(), any())).thenReturn(new ItemDto(1L, "Item", "Item desc", true, null));
+        doThrow(new IllegalStateException("Сбой")).when(store).complete(any(), any(), any());
+        String key = UUID.randomUUID().toString();
+
+        assertEquals(200, createItem(1L, key, ITEM).getStatus());
+        assertEquals(409, createItem(1L, key, ITEM).getStatus());
+        verify(store, never()).release(any(), any());
+        verify(itemService, times(1)).add(any(), any());
+    }
+
+    private MockHttpServletResponse createItem(long userId, String key, String body) throws Exception {
+        var request = post("/items")
+                .header("X-Sharer-User-Id", userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body);
+        if (key != null) {
+            request.header(IdempotencyFilter.KEY_HEADER, key);
+        }
+        return mvc.perform(request).andReturn().getResponse();
+    }
+}
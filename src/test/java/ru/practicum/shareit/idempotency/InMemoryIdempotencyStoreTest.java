@@ -0,0 +1,34 @@
+package ru.practicum.shareit.idempotency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryIdempotencyStoreTest {
+    private static final long LOCK_MS = 50;
+
+    private final InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(new SimpleMeterRegistry(), 100,
+            60_000, LOCK_MS);
+
+    @Test
+    void requestThatLostItsClaimShouldNeitherCompleteNorReleaseTheKey() throws InterruptedException {
+        byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+        IdempotentResponse lost = IdempotentResponse.inProgress("fingerprint");
+        assertEquals(Optional.empty(), store.claim("1:key", lost));
+        Thread.sleep(LOCK_MS * 2);
+        IdempotentResponse retry = IdempotentResponse.inProgress("fingerprint");
+        assertEquals(Optional.empty(), store.claim("1:key", retry));
+
+        store.complete("1:key", lost, new IdempotentResponse("fingerprint", 201, "application/json", body));
+        store.release("1:key", lost);
+        assertEquals(retry, store.claim("1:key", IdempotentResponse.inProgress("fingerprint")).orElseThrow());
+
+        store.complete("1:key", retry, new IdempotentResponse("fingerprint", 201, "application/json", body));
+        assertTrue(store.claim("1:key", IdempotentResponse.inProgress("fingerprint")).orElseThrow().isCompleted());
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"shareit.idempotency.store=jdbc", "shareit.idempotency.ttl-ms=60000",
+        "shareit.idempotency.lock-ms=5000"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class JdbcIdempotencyStoreTest {
+    private final IdempotencyStore store;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldKeepFirstClaimAndReplayItsResponseUntilExpired() {
+        assertInstanceOf(JdbcIdempotencyStore.class, store);
+        String key = "1:" + UUID.randomUUID();
+        byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+        IdempotentResponse claim = IdempotentResponse.inProgress("fingerprint");
+        assertEquals(Optional.empty(), store.claim(key, claim));
+        assertFalse(store.claim(key, IdempotentResponse.inProgress("fingerprint")).orElseThrow().isCompleted());
+
+        store.complete(key, claim, new IdempotentResponse("fingerprint", 201, "application/json", body));
+        assertEquals(new IdempotentResponse("fingerprint", 201, "application/json", body),
+                store.claim(key, IdempotentResponse.inProgress("other")).orElseThrow());
+
+        store.release(key, claim);
+        claim = IdempotentResponse.inProgress("fingerprint");
+        assertEquals(Optional.empty(), store.claim(key, claim));
+
+        jdbcTemplate.update("UPDATE idempotency_keys SET created = DATEADD('MINUTE', -2, created) WHERE id_key = ?",
+                key);
+        claim = IdempotentResponse.inProgress("other");
+        assertEquals(Optional.empty(), store.claim(key, claim));
+        store.release(key, claim);
+    }
+
+    @Test
+    void claimPastItsLeaseShouldBeTakenOverButResponseKept() {
+        String key = "1:" + UUID.randomUUID();
+        byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(Optional.empty(), store.claim(key, IdempotentResponse.inProgress("fingerprint")));
+        jdbcTemplate.update("UPDATE idempotency_keys SET created = DATEADD('SECOND', -10, created) WHERE id_key = ?",
+                key);
+        IdempotentResponse claim = IdempotentResponse.inProgress("fingerprint");
+        assertEquals(Optional.empty(), store.claim(key, claim));
+
+        store.complete(key, claim, new IdempotentResponse("fingerprint", 201, "application/json", body));
+        jdbcTemplate.update("UPDATE idempotency_keys SET created = DATEADD('SECOND', -10, created) WHERE id_key = ?",
+                key);
+        assertTrue(store.claim(key, IdempotentResponse.inProgress("fingerprint")).orElseThrow().isCompleted());
+        store.release(key, claim);
+    }
+
+    @Test
+    void requestThatLostItsClaimShouldNeitherCompleteNorReleaseTheKey() {
+        String key = "1:" + UUID.randomUUID();
+        byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+        IdempotentResponse lost = IdempotentResponse.inProgress("fingerprint");
+        assertEquals(Optional.empty(), store.claim(key, lost));
+        jdbcTemplate.update("UPDATE idempotency_keys SET created = DATEADD('SECOND', -10, created) WHERE id_key = ?",
+                key);
+        IdempotentResponse retry = IdempotentResponse.inProgress("fingerprint");
+        assertEquals(Optional.empty(), store.claim(key, retry));
+
+        store.complete(key, lost, new IdempotentResponse("fingerprint", 201, "application/json", body));
+        store.release(key, lost);
+        assertFalse(store.claim(key, IdempotentResponse.inProgress("fingerprint")).orElseThrow().isCompleted());
+
+        store.complete(key, retry, new IdempotentResponse("fingerprint", 201, "application/json", body));
+        assertTrue(store.claim(key, IdempotentResponse.inProgress("fingerprint")).orElseThrow().isCompleted());
+        store.release(key, retry);
+    }
+}
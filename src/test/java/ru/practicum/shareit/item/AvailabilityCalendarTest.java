@@ -0,0 +1,110 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.BookingPeriod;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.availability.AvailabilityCalendar;
+import ru.practicum.shareit.item.availability.AvailabilityStatus;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class AvailabilityCalendarTest {
+    private static final LocalDateTime FROM = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void shouldMergeOverlappingBookingsAndLetApprovedOnesWin() {
+        List<BookingPeriod> bookings = List.of(
+                period(BookingStatus.WAITING, -5, 1),
+                period(BookingStatus.APPROVED, 2, 4),
+                period(BookingStatus.WAITING, 3, 6),
+                period(BookingStatus.WAITING, 5, 7),
+                period(BookingStatus.APPROVED, 4, 5),
+                period(BookingStatus.APPROVED, 9, 20));
+
+        assertEquals(List.of(
+                interval(0, 1, AvailabilityStatus.WAITING),
+                interval(1, 2, AvailabilityStatus.FREE),
+                interval(2, 5, AvailabilityStatus.BOOKED),
+                interval(5, 7, AvailabilityStatus.WAITING),
+                interval(7, 9, AvailabilityStatus.FREE),
+                interval(9, 10, AvailabilityStatus.BOOKED)), build(10, bookings));
+        assertEquals(List.of(interval(0, 10, AvailabilityStatus.FREE)), build(10, List.of()));
+    }
+
+    @Test
+    void shouldMatchHourByHourStatusesForRandomBookings() {
+        Random random = new Random(42);
+        int hours = 500;
+        for (int round = 0; round < 200; round++) {
+            List<BookingPeriod> bookings = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                int start = random.nextInt(hours + 20) - 10;
+                bookings.add(period(random.nextBoolean() ? BookingStatus.APPROVED : BookingStatus.WAITING, start,
+                        start + 1 + random.nextInt(40)));
+            }
+            bookings.sort(Comparator.comparing(BookingPeriod::getStart));
+
+            List<AvailabilityIntervalDto> intervals = build(hours, bookings);
+            assertEquals(FROM, intervals.get(0).getStart());
+            assertEquals(FROM.plusHours(hours), intervals.get(intervals.size() - 1).getEnd());
+            for (int i = 0; i < intervals.size(); i++) {
+                AvailabilityIntervalDto interval = intervals.get(i);
+                if (i > 0) {
+                    assertEquals(intervals.get(i - 1).getEnd(), interval.getStart());
+                }
+                for (LocalDateTime hour = interval.getStart(); hour.isBefore(interval.getEnd()); hour = hour.plusHours(1)) {
+                    assertEquals(expected(bookings, hour), interval.getStatus(), "час " + hour);
+                }
+            }
+        }
+    }
+
+    private static AvailabilityStatus expected(List<BookingPeriod> bookings, LocalDateTime hour) {
+        AvailabilityStatus status = AvailabilityStatus.FREE;
+        for (BookingPeriod booking : bookings) {
+            if (!booking.getStart().isAfter(hour) && booking.getEnd().isAfter(hour)) {
+                if (booking.getStatus() == BookingStatus.APPROVED) {
+                    return AvailabilityStatus.BOOKED;
+                }
+                status = AvailabilityStatus.WAITING;
+            }
+        }
+        return status;
+    }
+
+    private static List<AvailabilityIntervalDto> build(int hours, List<BookingPeriod> bookings) {
+        return AvailabilityCalendar.build(FROM, FROM.plusHours(hours), bookings);
+    }
+
+    private static AvailabilityIntervalDto interval(int start, int end, AvailabilityStatus status) {
+        return new AvailabilityIntervalDto(FROM.plusHours(start), FROM.plusHours(end), status);
+    }
+
+    private static BookingPeriod period(BookingStatus status, int start, int end) {
+        return new BookingPeriod() {
+            @Override
+            public Long getId() {
+                return null;
+            }
+
+            @Override
+            public BookingStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return FROM.plusHours(start);
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return FROM.plusHours(end);
+            }
+        };
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Latency of {@code GET /items/{itemId}/availability} for an item with {@code shareit.benchmark.bookings} bookings,
+ * nine in ten of them in the past, checked against the target p99 {@code shareit.benchmark.target-ms}. Requests
+ * ask for 30-day windows, alternately as the owner (APPROVED and WAITING bookings) and as another user: upcoming
+ * windows starting within two months from now, and windows anywhere in the history. Not part of the regular
+ * test run, start explicitly: {@code mvn test -Dtest=ItemAvailabilityBenchmark -Dshareit.benchmark.bookings=10000}
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false",
+        "logging.level.org.springframework.transaction.interceptor=INFO",
+        "logging.level.org.springframework.orm.jpa.JpaTransactionManager=INFO"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ItemAvailabilityBenchmark {
+    private static final int WINDOW_DAYS = 30;
+    private static final int AVERAGE_STEP_HOURS = 7;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ItemService itemService;
+
+    private final int bookings = Integer.getInteger("shareit.benchmark.bookings", 10_000);
+    private final int iterations = Integer.getInteger("shareit.benchmark.iterations", 2_000);
+    private final long targetMs = Long.getLong("shareit.benchmark.target-ms", 20L);
+    private final Random random = new Random(42);
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+    private final LocalDateTime first = now.minusHours((long) bookings * AVERAGE_STEP_HOURS * 9 / 10);
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('Owner', 'bench-availability-owner@mail.com')");
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('Booker', 'bench-availability-booker@mail.com')");
+        ownerId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = 'bench-availability-owner@mail.com'",
+                Long.class);
+        bookerId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = 'bench-availability-booker@mail.com'",
+                Long.class);
+        jdbcTemplate.update("INSERT INTO items (name, description, available, owner_id) VALUES ('Item', 'Desc', TRUE, ?)",
+                ownerId);
+        itemId = jdbcTemplate.queryForObject("SELECT id FROM items WHERE owner_id = ?", Long.class, ownerId);
+
+        List<Object[]> batch = new ArrayList<>(bookings);
+        LocalDateTime start = first;
+        for (int i = 0; i < bookings; i++) {
+            start = start.plusHours(1 + random.nextInt(2 * AVERAGE_STEP_HOURS - 1));
+            BookingStatus status = random.nextInt(4) == 0 ? BookingStatus.WAITING : BookingStatus.APPROVED;
+            batch.add(new Object[]{itemId, status.toString(), bookerId, Timestamp.valueOf(start),
+                    Timestamp.valueOf(start.plusHours(1 + random.nextInt(status == BookingStatus.WAITING ? 24 : 6)))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (item_id, status, booker_id, date_start, date_end) " +
+                "VALUES (?, ?, ?, ?, ?)", batch);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE 'bench-availability-%'");
+    }
+
+    @Test
+    void availabilityShouldStayWithinTargetLatency() {
+        int historyDays = (int) Duration.between(first, now).toDays();
+        Supplier<LocalDateTime> upcoming = () -> now.plusHours(random.nextInt(60 * 24));
+        Supplier<LocalDateTime> history = () -> first.plusHours(random.nextInt(historyDays * 24));
+        measure(upcoming);
+        measure(history);
+        long[] upcomingTimings = measure(upcoming);
+        long[] historyTimings = measure(history);
+        System.out.printf("bookings=%d iterations=%d window=%dd target=%dms%n", bookings, iterations, WINDOW_DAYS,
+                targetMs);
+        System.out.printf("upcoming windows: avg=%dus p99=%dus%n", average(upcomingTimings), p99(upcomingTimings));
+        System.out.printf("history windows:  avg=%dus p99=%dus%n", average(historyTimings), p99(historyTimings));
+        assertTrue(p99(upcomingTimings) <= targetMs * 1_000, "p99 выше целевого значения");
+        assertTrue(p99(historyTimings) <= targetMs * 1_000, "p99 выше целевого значения");
+    }
+
+    private long[] measure(Supplier<LocalDateTime> windowStart) {
+        long[] timings = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            LocalDateTime from = windowStart.get();
+            long start = System.nanoTime();
+            itemService.getAvailability(itemId, i % 2 == 0 ? ownerId : bookerId, from, from.plusDays(WINDOW_DAYS));
+            timings[i] = (System.nanoTime() - start) / 1_000;
+        }
+        Arrays.sort(timings);
+        return timings;
+    }
+
+    private static long average(long[] timings) {
+        return (long) Arrays.stream(timings).average().orElse(0);
+    }
+
+    private static long p99(long[] sortedTimings) {
+        return sortedTimings[(int) Math.min(sortedTimings.length - 1, Math.floor(sortedTimings.length * 0.99))];
+    }
+}
@@ -17,8 +17,12 @@ import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.InvalidPeriodException;
+import ru.practicum.shareit.item.availability.AvailabilityStatus;
 import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.mapper.ItemMapperImpl;
@@ -95,9 +99,6 @@ public class ItemControllerTest {
                 .toExtendInfoDto(List.of(item), new HashMap<>(), bookingMapping, bookingMapping).get(0))
                 .when(itemService).getById(any(), any());
 
-        when(bookingService.getItemLastBookingMapping(any())).thenReturn(bookingMapping);
-        when(bookingService.getItemNextBookingMapping(any())).thenReturn(bookingMapping);
-
         MockHttpServletResponse response = getResponseGetItem(userId, itemId);
         assertThat(response.getStatus(), is(200));
         assertThat(JsonPath.parse(response.getContentAsString()).read("$.id").toString(), is(String.valueOf(itemId)));
@@ -161,6 +162,60 @@ public class ItemControllerTest {
         assertThat(getResponseSearchItems(null, 0).getStatus(), is(400));
     }
 
+    @Test
+    void searchFreeItemsWithValidParametersReturnsAnswerAndInvalidParametersReturnsError() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 3, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2030, 1, 5, 0, 0);
+        when(itemService.searchFreeItems(any(), any(), any(), anyInt(), anyInt()))
+                .thenReturn(itemMapper.toListItemDto(List.of(item)));
+
+        assertThat(getResponseSearchFreeItems("Drill", start.toString(), end.toString()).getStatus(), is(200));
+        verify(itemService, times(1)).searchFreeItems("drill", start, end, 0, 10);
+        verify(itemService, times(0)).searchItems(any(), anyInt(), anyInt());
+
+        assertThat(getResponseSearchFreeItems("drill", "3 января", end.toString()).getStatus(), is(400));
+
+        when(itemService.searchFreeItems(any(), any(), any(), anyInt(), anyInt()))
+                .thenThrow(new InvalidPeriodException("Начало периода должно быть раньше его конца"));
+        assertThat(getResponseSearchFreeItems("drill", end.toString(), start.toString()).getStatus(), is(400));
+    }
+
+    @Test
+    void suggestNamesWithValidParametersReturnsAnswerAndInvalidParametersReturnsError() throws Exception {
+        when(itemService.suggestNames(any(), anyInt())).thenReturn(List.of("Дрель", "Дрель ударная"));
+
+        MockHttpServletResponse response = getResponseSuggestNames("др", 5);
+        assertThat(response.getStatus(), is(200));
+        assertThat(JsonPath.parse(response.getContentAsString(StandardCharsets.UTF_8)).read("$[1]"), is("Дрель ударная"));
+        verify(itemService, times(1)).suggestNames("др", 5);
+
+        assertThat(getResponseSuggestNames(" ", 5).getStatus(), is(400));
+        assertThat(getResponseSuggestNames("др", 0).getStatus(), is(400));
+        assertThat(getResponseSuggestNames("др", 21).getStatus(), is(400));
+    }
+
+    @Test
+    void getAvailabilityWithValidParametersReturnsAnswerAndInvalidParametersReturnsError() throws Exception {
+        final long userId = user.getId();
+        final long itemId = item.getId();
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(3);
+        ItemAvailabilityDto availability = new ItemAvailabilityDto(itemId, from, to, List.of(
+                new AvailabilityIntervalDto(from, from.plusDays(1), AvailabilityStatus.FREE),
+                new AvailabilityIntervalDto(from.plusDays(1), to, AvailabilityStatus.BOOKED)));
+        when(itemService.getAvailability(itemId, userId, from, to)).thenReturn(availability);
+
+        MockHttpServletResponse response = getResponseGetAvailability(userId, itemId, "2030-01-01T00:00:00",
+                "2030-01-04T00:00:00");
+        assertThat(response.getStatus(), is(200));
+        assertThat(mapper.readValue(response.getContentAsString(StandardCharsets.UTF_8), ItemAvailabilityDto.class),
+                is(availability));
+
+        assertThat(getResponseGetAvailability(userId, itemId, "2030-01-01T00:00:00", null).getStatus(), is(400));
+        assertThat(getResponseGetAvailability(userId, itemId, "01.01.2030", "2030-01-04T00:00:00").getStatus(),
+                is(400));
+    }
+
     @Test
     void createCommentWithValidParametersReturnsAnswerAndInvalidParametersReturnsError() throws Exception {
         final long userId = user.getId();
@@ -186,6 +241,28 @@ public class ItemControllerTest {
         return mvcResult.getResponse();
     }
 
+    private MockHttpServletResponse getResponseGetAvailability(Long userId, Long itemId, String from, String to)
+            throws Exception {
+        MvcResult mvcResult = mvc.perform(get("/items/{itemId}/availability", itemId)
+                        .param("from", from)
+                        .param("to", to)
+                        .header("X-Sharer-User-Id", userId)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn();
+        return mvcResult.getResponse();
+    }
+
+    private MockHttpServletResponse getResponseSuggestNames(String prefix, Integer size) throws Exception {
+        MvcResult mvcResult = mvc.perform(get("/items/suggest")
+                        .param("prefix", prefix)
+                        .param("size", String.valueOf(size))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn();
+        return mvcResult.getResponse();
+    }
+
     private MockHttpServletResponse getResponseSearchItems(String text) throws Exception {
         MvcResult mvcResult = mvc.perform(get("/items/search")
                         .param("text", text)
@@ -196,6 +273,17 @@ public class ItemControllerTest {
         return mvcResult.getResponse();
     }
 
+    private MockHttpServletResponse getResponseSearchFreeItems(String text, String start, String end) throws Exception {
+        MvcResult mvcResult = mvc.perform(get("/items/search")
+                        .param("text", text)
+                        .param("start", start)
+                        .param("end", end)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn();
+        return mvcResult.getResponse();
+    }
+
     private MockHttpServletResponse getResponseSearchItems(String text, Integer from) throws Exception {
         MvcResult mvcResult = mvc.perform(get("/items/search")
                         .param("from", String.valueOf(from))
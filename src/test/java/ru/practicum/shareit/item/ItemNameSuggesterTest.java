@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.suggest.ItemNameSuggester;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ItemNameSuggesterTest {
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final ItemNameSuggester suggester = new ItemNameSuggester(itemRepository);
+
+    @Test
+    void batchRowsShouldNotOverwriteChangesMadeDuringWarmUp() {
+        when(itemRepository.findAllByIdGreaterThanOrderById(anyLong(), any())).thenAnswer(invocation -> {
+            suggester.onItemSaved(ItemSavedEvent.of(new Item(1L, "Шуруповерт", "Ударный", true, 1L, null)));
+            suggester.onUserDeleted(new UserDeletedEvent(2L));
+            return List.of(new Item(1L, "Дрель", "Ударная", true, 1L, null),
+                    new Item(2L, "Пила", "Цепная", true, 2L, null),
+                    new Item(3L, "Дрель ударная", "Сетевая", true, 3L, null));
+        });
+
+        suggester.warmUp();
+
+        assertEquals(List.of("Шуруповерт"), suggester.suggest("шу", 10));
+        assertEquals(List.of("Дрель ударная"), suggester.suggest("др", 10));
+        assertEquals(List.of(), suggester.suggest("пи", 10));
+
+        suggester.onUserDeleted(new UserDeletedEvent(1L));
+        suggester.onItemSaved(ItemSavedEvent.of(new Item(3L, "Дрель ударная", "Сетевая", false, 3L, null)));
+        assertEquals(List.of(), suggester.suggest("шу", 10));
+        assertEquals(List.of(), suggester.suggest("др", 10));
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.suggest.ItemNameTrie;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ItemNameTrieTest {
+    private final ItemNameTrie trie = new ItemNameTrie();
+
+    @Test
+    void shouldCompleteByPopularityThenAlphabetically() {
+        trie.add("Дрель ударная");
+        trie.add("Дрель");
+        trie.add("Дрель аккумуляторная");
+        trie.add("Дрель ударная");
+        trie.add("Домкрат");
+
+        assertEquals(List.of("Дрель ударная", "Дрель", "Дрель аккумуляторная"), trie.complete("др", 10));
+        assertEquals(List.of("Дрель ударная", "Дрель"), trie.complete("ДРЕЛЬ", 2));
+        assertEquals(List.of("Дрель ударная"), trie.complete("дрель у", 10));
+        assertEquals(List.of("Дрель ударная", "Домкрат", "Дрель", "Дрель аккумуляторная"), trie.complete("д", 10));
+        assertEquals(List.of(), trie.complete("дрельу", 10));
+        assertEquals(List.of(), trie.complete("пила", 10));
+    }
+
+    @Test
+    void shouldForgetNamesWithoutItems() {
+        trie.add("Дрель");
+        trie.add("Дрель ударная");
+        trie.add("Дрель ударная");
+
+        trie.remove("Дрель ударная");
+        assertEquals(List.of("Дрель", "Дрель ударная"), trie.complete("дрель", 10));
+
+        trie.remove("Дрель ударная");
+        assertEquals(List.of("Дрель"), trie.complete("дрель", 10));
+
+        trie.remove("Дрель");
+        trie.remove("Пила");
+        assertEquals(List.of(), trie.complete("д", 10));
+
+        trie.add("Дрель");
+        assertEquals(List.of("Дрель"), trie.complete("д", 10));
+    }
+
+    @Test
+    void shouldKeepOnlyMostCommonCompletionsPerNode() {
+        for (int i = 0; i < ItemNameTrie.MAX_COMPLETIONS + 5; i++) {
+            trie.add("Item " + (char) ('a' + i));
+        }
+        trie.add("Item z");
+        trie.add("Item z");
+        assertEquals(ItemNameTrie.MAX_COMPLETIONS, trie.complete("item", 100).size());
+        assertEquals("Item z", trie.complete("item", 1).get(0));
+    }
+}
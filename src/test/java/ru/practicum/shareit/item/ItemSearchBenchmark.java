@@ -0,0 +1,121 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.search.TrigramItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of the SQL and in-memory trigram item search engines behind {@link ItemService#searchItems}.
+ * Not part of the regular test run, start explicitly:
+ * {@code mvn test -Dtest=ItemSearchBenchmark -Dshareit.benchmark.items=1000000}
+ * <p>
+ * Runs without forking, because every trial boots its own application context with the engine under test.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ItemSearchBenchmark {
+    private static final int BATCH_SIZE = 10_000;
+    private static final String[] WORDS = {"дрель", "отвертка", "перфоратор", "пила", "лестница", "палатка",
+            "велосипед", "самокат", "аккумуляторный", "ударный", "складной", "туристический", "детский", "цепная",
+            "крестовая", "алюминиевая", "электрический", "ручной", "садовый", "строительный"};
+    private static final String[] QUERIES = {"отвертка", "перфор", "дрель ударный", "аккум", "перфаратор",
+            "лестница складной", "велосипед детский"};
+
+    @Param({"sql", "trigram"})
+    public String engine;
+
+    @Param({"100000"})
+    public int items;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private int nextQuery;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .profiles("test")
+                .properties("shareit.item-search.engine=" + engine, "shareit.item-search.cache.max-size=0",
+                        "spring.jpa.show-sql=false",
+                        "spring.main.web-application-type=none")
+                .run();
+        seed(context.getBean(JdbcTemplate.class));
+        if (context.getBeanNamesForType(TrigramItemSearchEngine.class).length > 0) {
+            context.getBean(TrigramItemSearchEngine.class).warmUp();
+        }
+        itemService = context.getBean(ItemService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.getBean(JdbcTemplate.class).update("DELETE FROM users WHERE email LIKE 'bench-%'");
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDto> search() {
+        String query = QUERIES[nextQuery++ % QUERIES.length];
+        return itemService.searchItems(query, 0, 10);
+    }
+
+    @Test
+    void compareSqlAndTrigramSearch() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ItemSearchBenchmark.class.getName() + ".search")
+                .param("items", System.getProperty("shareit.benchmark.items", "100000"))
+                .forks(0)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(2))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(2))
+                .build();
+        new Runner(options).run();
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('Owner', 'bench-search-owner@mail.com')");
+        Long ownerId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = 'bench-search-owner@mail.com'",
+                Long.class);
+        Random random = new Random(42);
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < items; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + word(random);
+            StringBuilder description = new StringBuilder();
+            for (int j = 0; j < 5; j++) {
+                description.append(j == 0 ? WORDS[random.nextInt(WORDS.length)] : word(random)).append(' ');
+            }
+            batch.add(new Object[]{name, description.toString().trim(), random.nextInt(10) > 0, ownerId});
+            if (batch.size() == BATCH_SIZE || i == items - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO items (name, description, available, owner_id) VALUES (?, ?, ?, ?)",
+                        batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private static String word(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 4 + random.nextInt(6);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('а' + random.nextInt(32)));
+        }
+        return word.toString();
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.SearchTokens;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ItemSearchCacheTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ItemSearchEngine engine = new ItemSearchEngine() {
+        @Override
+        public List<Item> search(List<String> tokens, Pageable page) {
+            return List.of();
+        }
+
+        @Override
+        public List<Item> searchFree(List<String> tokens, LocalDateTime start, LocalDateTime end, Pageable page) {
+            return List.of();
+        }
+    };
+    private final ItemSearchCache cache = new ItemSearchCache(engine, meterRegistry, 100, 60_000);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void shouldServeRepeatedSearchesAndCountHitsAndMisses() {
+        search("Дрель ударная", 0, 10);
+        search("ударная  ДРЕЛЬ", 0, 10);
+        search("дрель ударная", 10, 10);
+
+        assertEquals(2, loads.get());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "itemSearch").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(2, meterRegistry.get("cache.gets").tag("cache", "itemSearch").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    void itemChangesShouldDropOnlyQueriesTheItemMayMatch() {
+        search("дрель", 0, 10);
+        search("дрель", 10, 10);
+        search("пила", 0, 10);
+
+        cache.onItemSaved(ItemSavedEvent.of(new Item(1L, "Отвертка", "Крестовая", true, 1L, null)));
+        cache.onItemSaved(ItemSavedEvent.of(new Item(2L, "Дрель", "Ударная", false, 1L, null)));
+        search("дрель", 0, 10);
+        search("пила", 0, 10);
+        assertEquals(3, loads.get());
+
+        cache.onItemSaved(ItemSavedEvent.of(new Item(3L, "Дрель", "Ударная", true, 1L, null)));
+        search("дрель", 0, 10);
+        search("дрель", 10, 10);
+        search("пила", 0, 10);
+        assertEquals(5, loads.get());
+
+        cache.onItemSaved(ItemSavedEvent.of(new Item(3L, "Дрель", "Ударная", true, 1L, null),
+                new Item(3L, "Шуруповерт", "Ударный", true, 1L, null)));
+        search("дрель", 0, 10);
+        search("пила", 0, 10);
+        assertEquals(6, loads.get());
+        assertEquals(4, meterRegistry.get("item.search.cache.invalidations").counter().count());
+
+        cache.onUserDeleted(new UserDeletedEvent(1L));
+        search("пила", 0, 10);
+        assertEquals(7, loads.get());
+    }
+
+    private List<ItemDto> search(String text, int from, int size) {
+        return cache.get(SearchTokens.of(text), from, size, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+    }
+}
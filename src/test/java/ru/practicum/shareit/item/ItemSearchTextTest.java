@@ -1,7 +1,9 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
@@ -9,6 +11,10 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.InvalidPeriodException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -16,6 +22,7 @@ import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -24,6 +31,7 @@ import java.util.stream.Stream;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest
 @Transactional
@@ -33,6 +41,7 @@ public class ItemSearchTextTest {
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final ItemService itemService;
+    private final BookingRepository bookingRepository;
 
     private Item availableItem1;
     private Item availableItem2;
@@ -44,6 +53,12 @@ public class ItemSearchTextTest {
         availableItem2 = itemRepository.save(new Item(null, "Item 2 name", "Item 2 desc", true, owner.getId(), null));
     }
 
+    @AfterAll
+    void afterAll() {
+        userRepository.deleteAll();
+        itemRepository.deleteAll();
+    }
+
     @ParameterizedTest
     @MethodSource("argumentsForItemSearchText")
     void searchAvailableItemsWithValidParametersReturnsAnswer(String text, List<Item> expectedItems) {
@@ -63,4 +78,49 @@ public class ItemSearchTextTest {
                 Arguments.of("shouldNotFindAnything", List.of())
         );
     }
+
+    @Test
+    void searchShouldMatchWordPrefixesAndRankNameMatchesFirst() {
+        User owner = userRepository.save(new User(null, "User 2", "search-rank@mail.com"));
+        Item inDescription = itemRepository.save(new Item(null, "Дрель", "Ударная, для отвертки", true, owner.getId(), null));
+        Item inName = itemRepository.save(new Item(null, "Отвертка", "Крестовая", true, owner.getId(), null));
+        itemRepository.save(new Item(null, "Отвертка", "Шлицевая", false, owner.getId(), null));
+
+        List<Long> itemIds = itemService.searchItems("ОТВЕРТК", 0, 10).stream().map(ItemDto::getId)
+                .collect(Collectors.toList());
+
+        assertEquals(List.of(inName.getId(), inDescription.getId()), itemIds);
+        assertEquals(List.of(), itemService.searchItems("ертк", 0, 10));
+        assertEquals(List.of(), itemService.searchItems("!?", 0, 10));
+    }
+
+    @Test
+    void searchFreeShouldSkipItemsWithApprovedBookingsInTheWindow() {
+        User owner = userRepository.save(new User(null, "User 3", "search-free-owner@mail.com"));
+        User booker = userRepository.save(new User(null, "User 4", "search-free-booker@mail.com"));
+        Item booked = itemRepository.save(new Item(null, "Пила цепная", "Бензиновая", true, owner.getId(), null));
+        Item waiting = itemRepository.save(new Item(null, "Пила дисковая", "По дереву", true, owner.getId(), null));
+        Item adjacent = itemRepository.save(new Item(null, "Пила торцовочная", "С протяжкой", true, owner.getId(), null));
+        Item free = itemRepository.save(new Item(null, "Пила сабельная", "Аккумуляторная", true, owner.getId(), null));
+        LocalDateTime start = LocalDateTime.now().plusDays(3).withNano(0);
+        LocalDateTime end = start.plusDays(2);
+        bookingRepository.save(new Booking(null, booked, BookingStatus.APPROVED, booker, end.minusHours(1), end.plusDays(1)));
+        bookingRepository.save(new Booking(null, booked, BookingStatus.REJECTED, booker, start, end));
+        bookingRepository.save(new Booking(null, waiting, BookingStatus.WAITING, booker, start, end));
+        bookingRepository.save(new Booking(null, adjacent, BookingStatus.APPROVED, booker, start.minusDays(1), start));
+        bookingRepository.save(new Booking(null, adjacent, BookingStatus.APPROVED, booker, end, end.plusDays(1)));
+
+        List<Long> itemIds = itemService.searchFreeItems("пила", start, end, 0, 10).stream().map(ItemDto::getId)
+                .collect(Collectors.toList());
+        assertEquals(List.of(waiting.getId(), adjacent.getId(), free.getId()), itemIds);
+
+        List<Long> secondPage = itemService.searchFreeItems("пила", start, end, 2, 2).stream().map(ItemDto::getId)
+                .collect(Collectors.toList());
+        assertEquals(List.of(free.getId()), secondPage);
+        assertEquals(List.of(booked.getId()), itemService.searchFreeItems("цепная", end.plusDays(1), end.plusDays(2), 0, 10)
+                .stream().map(ItemDto::getId).collect(Collectors.toList()));
+        assertThrows(InvalidPeriodException.class, () -> itemService.searchFreeItems("пила", end, start, 0, 10));
+        assertThrows(InvalidPeriodException.class, () -> itemService.searchFreeItems("пила",
+                LocalDateTime.now().minusDays(1), end, 0, 10));
+    }
 }
@@ -4,13 +4,21 @@ import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.create.CreateBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
 import ru.practicum.shareit.exception.AccessException;
 import ru.practicum.shareit.exception.CreatingCommentException;
+import ru.practicum.shareit.exception.InvalidPeriodException;
+import ru.practicum.shareit.item.availability.AvailabilityStatus;
 import ru.practicum.shareit.item.dto.AdvancedItemDto;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
@@ -23,7 +31,9 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -34,6 +44,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest
@@ -47,6 +58,9 @@ public class ItemServiceImplTest {
     private final UserRepository userRepository;
     private final ItemService itemService;
     private final ItemMapper itemMapper;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final UserService userService;
+    private final BookingService bookingService;
 
     @Test
     void shouldCreateAndGetAndUpdateItemWithValidParametersReturnsAnswerAndInvalidParametersReturnsError() {
@@ -77,7 +91,7 @@ public class ItemServiceImplTest {
         User booker = userRepository.save(new User(null, "User 1 name", "user1@mail.com"));
         User owner = userRepository.save(new User(null, "User 2 name", "user2@mail.com"));
         ItemRequest request = requestRepository.save(new ItemRequest(null, "desc", null, owner.getId()));
-        Item item = itemMapper.toItemModel(itemService.add(new ItemDto(null,"Item name", "Item desc", true, request.getId()), owner.getId()), owner.getId());
+        Item item = itemRepository.findById(itemService.add(new ItemDto(null,"Item name", "Item desc", true, request.getId()), owner.getId()).getId()).orElseThrow();
         bookingRepository.save(new Booking(null, item, BookingStatus.APPROVED, booker, LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1)));
         Comment comment = commentRepository.save(new Comment(null, item.getId(), booker, "text", null));
 
@@ -91,7 +105,7 @@ public class ItemServiceImplTest {
     void shouldCreateCommentByCorrectUsers() {
         User booker = userRepository.save(new User(null, "User 1 name", "user1@mail.com"));
         User owner = userRepository.save(new User(null, "User 2 name", "user2@mail.com"));
-        Item item = itemMapper.toItemModel(itemService.add(new ItemDto(null,"Item name", "Item desc", true, null), owner.getId()), owner.getId());
+        Item item = itemRepository.findById(itemService.add(new ItemDto(null,"Item name", "Item desc", true, null), owner.getId()).getId()).orElseThrow();
         bookingRepository.save(new Booking(null, item, BookingStatus.APPROVED, booker, LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1)));
 
         assertThrows(CreatingCommentException.class, () -> itemService.createComment(new CommentDto(null,null,"text", null, null), item.getId(), owner.getId()));
@@ -99,4 +113,119 @@ public class ItemServiceImplTest {
         CommentDto savedComment = itemMapper.toCommentDto(commentRepository.findById(comment.getId()).orElseThrow());
         assertEquals(savedComment, comment);
     }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldLoadOwnerItemsWithParallelLookupsOutsideTransaction() {
+        User booker = userRepository.save(new User(null, "Booker", "fan-out-booker@mail.com"));
+        User owner = userRepository.save(new User(null, "Owner", "fan-out-owner@mail.com"));
+        try {
+            Item item = itemRepository.save(new Item(null, "Item name", "Item desc", true, owner.getId(), null));
+            Booking last = bookingRepository.save(new Booking(null, item, BookingStatus.APPROVED, booker,
+                    LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1)));
+            commentRepository.save(new Comment(null, item.getId(), booker, "text", null));
+            itemBookingSummaryService.refresh(Set.of(item.getId()));
+
+            AdvancedItemDto received = itemService.getAllByOwner(owner.getId(), 0, 10).iterator().next();
+
+            assertEquals(last.getId(), received.getLastBooking().getId());
+            assertNull(received.getNextBooking());
+            assertEquals("Booker", received.getComments().get(0).getAuthorName());
+        } finally {
+            userRepository.deleteAll(List.of(booker, owner));
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void suggestionsShouldFollowCommittedItemChanges() {
+        User owner = userRepository.save(new User(null, "Owner", "suggest-owner@mail.com"));
+        try {
+            ItemDto item = itemService.add(new ItemDto(null, "Шуруповерт Makita", "Desc", true, null), owner.getId());
+            assertEquals(List.of("Шуруповерт Makita"), itemService.suggestNames("шуруповерт m", 10));
+
+            itemService.update(new ItemDto(null, null, null, false, null), item.getId(), owner.getId());
+            assertEquals(List.of(), itemService.suggestNames("шуруповерт", 10));
+
+            itemService.update(new ItemDto(null, "Шуруповерт Bosch", null, true, null), item.getId(), owner.getId());
+            assertEquals(List.of("Шуруповерт Bosch"), itemService.suggestNames("Шуруп", 10));
+        } finally {
+            userService.delete(owner.getId());
+        }
+        assertEquals(List.of(), itemService.suggestNames("шуруп", 10));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void itemViewsShouldBeCachedUntilChangedOrUntilNextBookingStarts() throws InterruptedException {
+        User owner = userRepository.save(new User(null, "Owner", "view-owner@mail.com"));
+        User booker = userRepository.save(new User(null, "Booker", "view-booker@mail.com"));
+        try {
+            ItemDto item = itemService.add(new ItemDto(null, "Item name", "Item desc", true, null), owner.getId());
+            assertEquals("Item name", itemService.getById(item.getId(), owner.getId()).getName());
+            assertEquals("Item name", itemService.getById(item.getId(), booker.getId()).getName());
+
+            Item stored = itemRepository.findById(item.getId()).orElseThrow();
+            stored.setDescription("Changed without event");
+            itemRepository.save(stored);
+            assertEquals("Item desc", itemService.getById(item.getId(), owner.getId()).getDescription());
+
+            itemService.update(new ItemDto(null, "New name", null, null, null), item.getId(), owner.getId());
+            assertEquals("New name", itemService.getById(item.getId(), owner.getId()).getName());
+            assertEquals("New name", itemService.getById(item.getId(), booker.getId()).getName());
+
+            bookingRepository.save(new Booking(null, stored, BookingStatus.APPROVED, booker,
+                    LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1)));
+            itemService.createComment(new CommentDto(null, null, "text", null, null), item.getId(), booker.getId());
+            assertThat(itemService.getById(item.getId(), booker.getId()).getComments(), hasSize(1));
+
+            LocalDateTime start = LocalDateTime.now().plusSeconds(1);
+            BookingDto booking = bookingService.createBooking(booker.getId(),
+                    new CreateBookingDto(null, item.getId(), null, start, start.plusDays(1)));
+            bookingService.updateBookingStatus(owner.getId(), booking.getId(), true);
+            assertEquals(booking.getId(), itemService.getById(item.getId(), owner.getId()).getNextBooking().getId());
+
+            Thread.sleep(Math.max(0, Duration.between(LocalDateTime.now(), start).toMillis() + 50));
+            AdvancedItemDto afterStart = itemService.getById(item.getId(), owner.getId());
+            assertEquals(booking.getId(), afterStart.getLastBooking().getId());
+            assertNull(afterStart.getNextBooking());
+        } finally {
+            userService.delete(owner.getId());
+            userService.delete(booker.getId());
+        }
+    }
+
+    @Test
+    void availabilityShouldShowWaitingBookingsOnlyToTheOwner() {
+        User owner = userRepository.save(new User(null, "Owner", "availability-owner@mail.com"));
+        User booker = userRepository.save(new User(null, "Booker", "availability-booker@mail.com"));
+        Item item = itemRepository.save(new Item(null, "Item", "Item desc", true, owner.getId(), null));
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        bookingRepository.save(new Booking(null, item, BookingStatus.APPROVED, booker, from.minusDays(1),
+                from.plusDays(2)));
+        bookingRepository.save(new Booking(null, item, BookingStatus.WAITING, booker, from.plusDays(1),
+                from.plusDays(4)));
+        bookingRepository.save(new Booking(null, item, BookingStatus.REJECTED, booker, from.plusDays(5),
+                from.plusDays(6)));
+        bookingRepository.save(new Booking(null, item, BookingStatus.APPROVED, booker, from.plusDays(8),
+                to.plusDays(1)));
+
+        assertEquals(List.of(
+                new AvailabilityIntervalDto(from, from.plusDays(2), AvailabilityStatus.BOOKED),
+                new AvailabilityIntervalDto(from.plusDays(2), from.plusDays(4), AvailabilityStatus.WAITING),
+                new AvailabilityIntervalDto(from.plusDays(4), from.plusDays(8), AvailabilityStatus.FREE),
+                new AvailabilityIntervalDto(from.plusDays(8), to, AvailabilityStatus.BOOKED)),
+                itemService.getAvailability(item.getId(), owner.getId(), from, to).getIntervals());
+        assertEquals(List.of(
+                new AvailabilityIntervalDto(from, from.plusDays(2), AvailabilityStatus.BOOKED),
+                new AvailabilityIntervalDto(from.plusDays(2), from.plusDays(8), AvailabilityStatus.FREE),
+                new AvailabilityIntervalDto(from.plusDays(8), to, AvailabilityStatus.BOOKED)),
+                itemService.getAvailability(item.getId(), booker.getId(), from, to).getIntervals());
+
+        assertThrows(InvalidPeriodException.class, () -> itemService.getAvailability(item.getId(), owner.getId(), to,
+                from));
+        assertThrows(InvalidPeriodException.class, () -> itemService.getAvailability(item.getId(), owner.getId(), from,
+                from.plusYears(2)));
+    }
 }
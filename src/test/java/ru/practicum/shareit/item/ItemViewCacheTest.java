@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.view.ItemView;
+import ru.practicum.shareit.item.view.ItemViewCache;
+import ru.practicum.shareit.user.event.UserUpdatedEvent;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ItemViewCacheTest {
+    private final ItemViewCache cache = new ItemViewCache(new SimpleMeterRegistry(), 100, 60_000);
+
+    @Test
+    void userUpdateShouldDropPagesShowingTheirComments() {
+        cache.load(1L, () -> new ItemView(1L, true, null, null));
+        cache.load(1L, () -> new ItemView(1L, false, null, null));
+        assertTrue(cache.find(1L, 1L).isPresent());
+        assertTrue(cache.find(1L, 2L).isPresent());
+
+        cache.onUserUpdated(new UserUpdatedEvent(3L, "Renamed", "renamed@mail.com"));
+
+        assertFalse(cache.find(1L, 1L).isPresent());
+        assertFalse(cache.find(1L, 2L).isPresent());
+    }
+}
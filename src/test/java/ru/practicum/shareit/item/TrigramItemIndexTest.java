@@ -0,0 +1,101 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.SearchTokens;
+import ru.practicum.shareit.item.search.TrigramItemIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TrigramItemIndexTest {
+    private final TrigramItemIndex index = new TrigramItemIndex();
+
+    @Test
+    void shouldMatchSubstringsAndRankNameMatchesFirst() {
+        index.put(new Item(1L, "Дрель", "Ударная, для отвертки", true, 1L, null));
+        index.put(new Item(2L, "Отвертка", "Крестовая", true, 1L, null));
+        index.put(new Item(3L, "Отвертка", "Шлицевая", false, 1L, null));
+        index.put(new Item(4L, "Item 2 name", "Item 2 desc", true, 2L, null));
+
+        assertEquals(List.of(2L, 1L), search("ОТВЕРТК"));
+        assertEquals(List.of(2L, 1L), search("ертк"));
+        assertEquals(List.of(4L), search("ItEm 2 desc"));
+        assertEquals(List.of(2L), search("крест отв"));
+        assertEquals(List.of(1L), search("др"));
+        assertEquals(List.of(1L), search("отвертк", 1, 10));
+    }
+
+    @Test
+    void shouldFilterMatchesBeforePaging() {
+        index.put(new Item(1L, "Пила цепная", "Бензиновая", true, 1L, null));
+        index.put(new Item(2L, "Пила дисковая", "По дереву", true, 1L, null));
+        index.put(new Item(3L, "Пила сабельная", "Аккумуляторная", true, 1L, null));
+        index.put(new Item(4L, "Лобзик", "По дереву", true, 1L, null));
+        List<Long> checked = new ArrayList<>();
+        Predicate<Item> free = item -> {
+            checked.add(item.getId());
+            return item.getId() != 1L;
+        };
+
+        assertEquals(List.of(3L), index.search(SearchTokens.of("пила"), free, 1, 10).stream()
+                .map(Item::getId).collect(Collectors.toList()));
+        assertEquals(List.of(1L, 2L, 3L), checked);
+        assertEquals(List.of(2L), index.search(SearchTokens.of("пила дерев"), free, 0, 10).stream()
+                .map(Item::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void shouldTolerateTyposWhenNothingMatchesExactly() {
+        index.put(new Item(1L, "Перфоратор", "Аккумуляторный", true, 1L, null));
+        index.put(new Item(2L, "Пила", "Цепная", true, 1L, null));
+
+        assertEquals(List.of(1L), search("перфаратор"));
+        assertEquals(List.of(1L), search("акумуляторный"));
+        assertEquals(List.of(1L), search("перфаратор акумуляторный"));
+        assertEquals(List.of(), search("перфаратор цепнаая"));
+        assertEquals(List.of(), search("самокат"));
+    }
+
+    @Test
+    void shouldFollowUpdatesAndOwnerRemoval() {
+        index.put(new Item(1L, "Дрель", "Ударная", true, 1L, null));
+        index.put(new Item(2L, "Пила", "Цепная", true, 2L, null));
+
+        index.put(new Item(1L, "Шуруповерт", "Ударный", true, 1L, null));
+        assertEquals(List.of(), search("дрель"));
+        assertEquals(List.of(1L), search("шуруп"));
+
+        index.put(new Item(1L, "Шуруповерт", "Ударный", false, 1L, null));
+        assertEquals(List.of(), search("шуруп"));
+
+        index.removeByOwner(2L);
+        assertEquals(List.of(), search("пила"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void shouldPageResultsAfterCompaction() {
+        for (long id = 1; id <= 3000; id++) {
+            index.put(new Item(id % 1000 + 1, "Item " + id, "Desc", true, 1L, null));
+        }
+        assertEquals(1000, index.size());
+        List<Long> firstPage = search("item", 0, 10);
+        List<Long> secondPage = search("item", 10, 10);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), firstPage);
+        assertEquals(List.of(11L, 12L, 13L, 14L, 15L, 16L, 17L, 18L, 19L, 20L), secondPage);
+    }
+
+    private List<Long> search(String text) {
+        return search(text, 0, 10);
+    }
+
+    private List<Long> search(String text, int offset, int limit) {
+        return index.search(SearchTokens.of(text), offset, limit).stream().map(Item::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.SearchTokens;
+import ru.practicum.shareit.item.search.TrigramItemSearchEngine;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TrigramItemSearchEngineTest {
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final TrigramItemSearchEngine engine = new TrigramItemSearchEngine(itemRepository,
+            mock(BookingIntervalIndex.class));
+
+    @Test
+    void changesDuringWarmUpShouldSurviveTheSwap() {
+        engine.onItemSaved(ItemSavedEvent.of(new Item(1L, "Дрель", "Ударная", true, 1L, null)));
+        when(itemRepository.findAllByIdGreaterThanOrderById(anyLong(), any())).thenAnswer(invocation -> {
+            assertEquals(List.of(1L), search("дрель"));
+            engine.onItemSaved(ItemSavedEvent.of(new Item(1L, "Шуруповерт", "Ударный", true, 1L, null)));
+            engine.onItemSaved(ItemSavedEvent.of(new Item(2L, "Пила", "Цепная", true, 1L, null)));
+            return List.of(new Item(1L, "Дрель", "Ударная", true, 1L, null));
+        });
+
+        engine.warmUp();
+
+        assertEquals(List.of(), search("дрель"));
+        assertEquals(List.of(1L), search("шуруп"));
+        assertEquals(List.of(2L), search("пила"));
+    }
+
+    private List<Long> search(String text) {
+        return engine.search(SearchTokens.of(text), PageRequest.of(0, 10)).stream().map(Item::getId)
+                .collect(Collectors.toList());
+    }
+}
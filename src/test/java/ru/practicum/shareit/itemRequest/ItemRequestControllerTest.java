@@ -13,18 +13,21 @@ import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
-import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.dto.ItemForRequestDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.controller.ItemRequestController;
+import ru.practicum.shareit.request.dto.AdvancedRequestItemDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.mapper.ItemRequestMapperImpl;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.PageCursor;
 
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -84,10 +87,10 @@ public class ItemRequestControllerTest {
     @Test
     void getOwnRequestsWithValidParametersReturnsAnswerAndInvalidParametersReturnsError() throws Exception {
         final long userId = user.getId();
-        Map<Long, List<Item>> requestItemMapping = new HashMap<>();
+        Map<Long, List<ItemForRequestDto>> requestItemMapping = new HashMap<>();
         requestItemMapping.put(request.getId(), new ArrayList<>());
         when(itemRequestService.getOwnRequests(any(), anyInt(), anyInt())).thenReturn(itemRequestMapper
-                .toListAdvancedItemRequestDto(List.of(request), requestItemMapping));
+                .toListAdvancedItemRequestDto(List.of(itemRequestMapper.toDto(request)), requestItemMapping));
         when(itemRequestService.getRequestItemMapping(anySet())).thenReturn(requestItemMapping);
 
         assertThat(getResponseGetOwnRequestsGetOwnRequests(userId, 0, 11).getStatus(), is(200));
@@ -106,10 +109,10 @@ public class ItemRequestControllerTest {
     @Test
     void getAllRequestsWithValidParametersReturnsAnswerAndInvalidParametersReturnsError() throws Exception {
         final long userId = user.getId();
-        Map<Long, List<Item>> requestItemMapping = new HashMap<>();
+        Map<Long, List<ItemForRequestDto>> requestItemMapping = new HashMap<>();
         requestItemMapping.put(request.getId(), new ArrayList<>());
         when(itemRequestService.getAllRequests(any(), anyInt(), anyInt())).thenReturn(itemRequestMapper
-                .toListAdvancedItemRequestDto(List.of(request), requestItemMapping));
+                .toListAdvancedItemRequestDto(List.of(itemRequestMapper.toDto(request)), requestItemMapping));
         when(itemRequestService.getRequestItemMapping(anySet())).thenReturn(requestItemMapping);
 
         assertThat(getResponseGetAllRequests(userId, 0, 11).getStatus(), is(200));
@@ -125,13 +128,37 @@ public class ItemRequestControllerTest {
         verify(itemRequestService, times(0)).getAllRequests(userId, 0, -1);
     }
 
+    @Test
+    void getAllRequestsReturnsNextCursorOnlyForCursorPages() throws Exception {
+        final long userId = user.getId();
+        request.setCreated(LocalDateTime.now());
+        List<AdvancedRequestItemDto> page = itemRequestMapper.toListAdvancedItemRequestDto(
+                List.of(itemRequestMapper.toDto(request)), Map.of(request.getId(), new ArrayList<>()));
+        when(itemRequestService.getAllRequests(any(), anyInt(), anyInt())).thenReturn(page);
+        when(itemRequestService.getAllRequests(any(), nullable(PageCursor.class), anyInt())).thenReturn(page);
+
+        MockHttpServletResponse offsetPage = getResponseGetAllRequests(userId, 0, 1);
+        assertThat(offsetPage.getStatus(), is(200));
+        assertThat(offsetPage.getHeader(PageCursor.NEXT_CURSOR_HEADER), is((String) null));
+
+        MockHttpServletResponse cursorPage = mvc.perform(get("/requests/all")
+                        .param("cursor", "")
+                        .param("size", "1")
+                        .header("X-Sharer-User-Id", userId))
+                .andReturn().getResponse();
+        assertThat(cursorPage.getStatus(), is(200));
+        assertThat(cursorPage.getHeader(PageCursor.NEXT_CURSOR_HEADER),
+                is(new PageCursor(request.getCreated(), request.getId()).encode()));
+        verify(itemRequestService, times(1)).getAllRequests(userId, (PageCursor) null, 1);
+    }
+
     @Test
     void getRequestByIdWithValidParametersReturnsAnswer() throws Exception {
         final long userId = user.getId();
         final long requestId = request.getId();
-        Map<Long, List<Item>> requestItemMapping = new HashMap<>();
+        Map<Long, List<ItemForRequestDto>> requestItemMapping = new HashMap<>();
         requestItemMapping.put(request.getId(), new ArrayList<>());
-        when(itemRequestService.getRequestById(any(), any())).thenReturn(itemRequestMapper.toAdvancedItemRequestDto(request, null));
+        when(itemRequestService.getRequestById(any(), any())).thenReturn(itemRequestMapper.toAdvancedItemRequestDto(itemRequestMapper.toDto(request), null));
         when(itemRequestService.getRequestItemMapping(anySet())).thenReturn(requestItemMapping);
 
         MockHttpServletResponse response = getResponseGetRequestById(userId, requestId);
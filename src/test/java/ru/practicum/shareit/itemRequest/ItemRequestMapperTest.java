@@ -38,12 +38,13 @@ public class ItemRequestMapperTest {
         Item item2 = new Item(5L, "Item 2", "Item desc 2", true, 10L, request2.getId());
         Item item3 = new Item(6L, "Item 3", "Item desc 3", true, 10L, request2.getId());
 
-        Map<Long, List<Item>> items = new HashMap<>();
-        items.put(1L, List.of(item1));
-        items.put(2L, List.of(item2, item3));
+        Map<Long, List<ItemForRequestDto>> items = new HashMap<>();
+        items.put(1L, List.of(requestMapper.toItemForRequestDto(item1)));
+        items.put(2L, List.of(requestMapper.toItemForRequestDto(item2), requestMapper.toItemForRequestDto(item3)));
 
         List<AdvancedRequestItemDto> requestWithItemInfoDto = requestMapper
-                .toListAdvancedItemRequestDto(List.of(request1, request2, request3), items);
+                .toListAdvancedItemRequestDto(List.of(requestMapper.toDto(request1), requestMapper.toDto(request2),
+                        requestMapper.toDto(request3)), items);
 
         assertThat(requestWithItemInfoDto, hasSize(3));
         assertThat(requestWithItemInfoDto.stream()
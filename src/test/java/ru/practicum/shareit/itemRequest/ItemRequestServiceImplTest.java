@@ -14,8 +14,11 @@ import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utils.PageCursor;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
@@ -46,16 +49,41 @@ public class ItemRequestServiceImplTest {
                 new ItemRequestDto(null,"Request desc 1", null), userWithRequests.getId());
         ItemRequest savedRequest = requestRepository.findById(request.getId()).orElseThrow();
         assertEquals(itemRequestMapper.toDto(savedRequest), request);
-        assertEquals(itemRequestMapper.toAdvancedItemRequestDto(savedRequest, null),
+        assertEquals(itemRequestMapper.toAdvancedItemRequestDto(request, null),
                 requestService.getRequestById(userWithRequests.getId(), request.getId()));
 
         List<AdvancedRequestItemDto> ownRequests = requestService.getOwnRequests(userWithRequests.getId(), 0, 10);
-        assertThat(ownRequests, contains(itemRequestMapper.toAdvancedItemRequestDto(savedRequest, List.of())));
+        assertThat(ownRequests, contains(itemRequestMapper.toAdvancedItemRequestDto(request, List.of())));
 
         List<AdvancedRequestItemDto> ownRequestsEmpty = requestService.getOwnRequests(userWithoutRequests.getId(), 0, 10);
         assertThat(ownRequestsEmpty, hasSize(0));
 
         List<AdvancedRequestItemDto> allRequests = requestService.getAllRequests(userWithoutRequests.getId(), 0, 10);
-        assertThat(allRequests, contains(itemRequestMapper.toAdvancedItemRequestDto(savedRequest, List.of())));
+        assertThat(allRequests, contains(itemRequestMapper.toAdvancedItemRequestDto(request, List.of())));
+    }
+
+    @Test
+    void keysetPagesOfAllRequestsShouldMatchOffsetPages() {
+        for (int i = 0; i < 5; i++) {
+            requestService.createRequest(new ItemRequestDto(null, "Request desc " + i, null), userWithRequests.getId());
+        }
+        List<Long> offsetIds = requestService.getAllRequests(userWithoutRequests.getId(), 0, 10).stream()
+                .map(AdvancedRequestItemDto::getId).collect(Collectors.toList());
+
+        List<Long> keysetIds = new ArrayList<>();
+        PageCursor cursor = null;
+        List<AdvancedRequestItemDto> page;
+        do {
+            page = requestService.getAllRequests(userWithoutRequests.getId(), cursor, 2);
+            page.forEach(request -> keysetIds.add(request.getId()));
+            if (!page.isEmpty()) {
+                AdvancedRequestItemDto last = page.get(page.size() - 1);
+                cursor = new PageCursor(last.getCreated(), last.getId());
+            }
+        } while (page.size() == 2);
+
+        assertThat(offsetIds, hasSize(5));
+        assertEquals(offsetIds, keysetIds);
+        assertThat(requestService.getAllRequests(userWithRequests.getId(), (PageCursor) null, 10), hasSize(0));
     }
 }
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class OptimisticRetryTemplateTest {
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OptimisticRetryTemplate template = new OptimisticRetryTemplate(transactionManager, meterRegistry, 3);
+
+    @Test
+    void shouldRepeatActionInNewTransactionUntilItWinsOrAttemptsRunOut() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertEquals("done", template.execute(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(Booking.class, 1L);
+            }
+            return "done";
+        }));
+        assertEquals(3, attempts.get());
+        verify(transactionManager, times(2)).rollback(any());
+        verify(transactionManager, times(1)).commit(any());
+        assertEquals(2, meterRegistry.counter("optimistic.retries").count());
+
+        attempts.set(0);
+        assertThrows(OptimisticLockingFailureException.class, () -> template.execute(() -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(Booking.class, 1L);
+        }));
+        assertEquals(3, attempts.get());
+
+        attempts.set(0);
+        assertThrows(IllegalStateException.class, () -> template.execute(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException();
+        }));
+        assertEquals(1, attempts.get());
+    }
+}
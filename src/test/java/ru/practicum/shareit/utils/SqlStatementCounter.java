@@ -0,0 +1,32 @@
+package ru.practicum.shareit.utils;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Counts the JDBC statements Hibernate prepares while an action runs.
+ * Requires {@code spring.jpa.properties.hibernate.generate_statistics=true}.
+ */
+public class SqlStatementCounter {
+    private final Statistics statistics;
+
+    public SqlStatementCounter(EntityManagerFactory entityManagerFactory) {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            throw new IllegalStateException("Hibernate statistics are disabled");
+        }
+    }
+
+    public long count(ThrowingRunnable action) throws Exception {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    @FunctionalInterface
+    public interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}